@@ -0,0 +1,59 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chaque moteur de GeneratorSelector.BACKENDS (construction comprise) compte les premiers de [1, N],
+ * pour N = 10^4 ... 10^9. SetShrinkingAlgorithm a son propre benchmark (SetShrinkingBenchmark), limit  10^6.
+ *
+ * 		java -jar target/benchmarks.jar GeneratorBenchmark -p backend=segmented,atkin-segmented
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GeneratorBenchmark {
+
+	@Param({"eratosthenes", "linear", "atkin", "segmented", "atkin-segmented", "parallel"})
+	public String backend;
+
+	@Param({"10000", "100000", "1000000", "10000000", "100000000", "1000000000"})
+	public long n;
+
+	private GeneratorSelector.Backend engine;
+
+	@Setup
+	public void setUp() {
+		for (GeneratorSelector.Backend candidate : GeneratorSelector.BACKENDS) {
+			if (candidate.getName().equals(backend)) {
+				engine = candidate;
+			}
+		}
+
+		if (engine==null) {
+			throw new IllegalArgumentException("moteur inconnu : " + backend);
+		}
+		if ( ! engine.accepts(n)) {
+			throw new IllegalArgumentException(backend + " n'accepte pas N = " + n + " avec ce tas");
+		}
+	}
+
+	@Benchmark
+	public long count() {
+		return engine.create(n).count();
+	}
+}
@@ -0,0 +1,49 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SetShrinkingAlgorithm.core() seul : l'ensemble initial est construit avant chaque appel, hors mesure.
+ * Dans le paquetage algorithms pour accder  core(), qui est protg.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetShrinkingBenchmark {
+
+	@Param({"10000", "100000", "1000000"})
+	public int n;
+
+	private SetShrinkingAlgorithm algorithm;
+
+	/**
+	 * core() vide l'ensemble : il en faut un neuf  chaque appel
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() {
+		algorithm = new SetShrinkingAlgorithm(n);
+	}
+
+	@Benchmark
+	public SetShrinkingAlgorithm core() {
+		algorithm.core();
+
+		return algorithm;
+	}
+}
@@ -0,0 +1,58 @@
+package algorithms.arithmetic;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * La rfrence des problmes TPNF (Genome.integerTPNF et doubleTPNF) : le temps de factorisation d'un semi-premier
+ * quilibr de DIGITS chiffres par le crible quadratique,  comparer au temps de convergence de NSGA2 sur la mme cible.
+ * Les cibles sont tires avec une graine fixe ; une mesure est une factorisation complte (SingleShotTime).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class QuadraticSieveBenchmark {
+
+	/** la cible de Genome.integerTPNF */
+	private static final long TPNF_TARGET = 4583L * 2971L;
+
+	@Param({"30", "40", "50", "60"})
+	public int digits;
+
+	private BigInteger target;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(digits);
+		int bits = (int) Math.round(digits * Math.log(10) / Math.log(2));
+		BigInteger p = BigInteger.probablePrime(bits/2, random);
+		BigInteger q = BigInteger.probablePrime(bits - bits/2, random);
+		target = p.multiply(q);
+	}
+
+	@Benchmark
+	public BigInteger quadraticSieve() {
+		return new QuadraticSieve().findFactor(target);
+	}
+
+	@Benchmark
+	public long[] tpnf() {
+		return PollardRho.factor(TPNF_TARGET);
+	}
+}
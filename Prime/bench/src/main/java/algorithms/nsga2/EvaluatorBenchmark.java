@@ -0,0 +1,86 @@
+package algorithms.nsga2;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import algorithms.nsga2.genes.Gene;
+
+/**
+ * L'valuation d'une gnration de N individus par un Evaluator sur THREADS threads, en lots de BATCH individus
+ * (0 : taille choisie par l'Evaluator). Chaque fitness de Populations.genome est alourdie de WORK jetons de
+ * Blackhole.consumeCPU, pour approcher des fitnesses relles de l'ordre de la milliseconde.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+	@Param({"100"})
+	public int n;
+
+	@Param({"1", "2", "4", "8"})
+	public int threads;
+
+	@Param({"0", "1", "16"})
+	public int batch;
+
+	@Param({"100000"})
+	public int work;
+
+	private ForkJoinPool pool;
+	private Evaluator evaluator;
+	private Population population;
+
+	@Setup
+	public void setUp() {
+		Map<String, Map> genome = Populations.genome(2);
+		Map<String, Fitness> fitnesses = genome.get("FITNESSES");
+
+		for (Map.Entry<String, Fitness> fitness : fitnesses.entrySet()) {
+			Fitness cheap = fitness.getValue();
+			fitness.setValue(new Fitness() {
+				public double compute(Map<String, Gene> genes) {
+					Blackhole.consumeCPU(work);
+
+					return cheap.compute(genes);
+				}
+			});
+		}
+
+		pool = new ForkJoinPool(threads);
+		evaluator = new Evaluator(pool, batch, 0, TimeUnit.NANOSECONDS);
+		population = Populations.random(genome, n, new Random(Populations.SEED));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public Population evaluate() {
+		evaluator.evaluate(population);
+
+		return population;
+	}
+}
@@ -0,0 +1,77 @@
+package algorithms.nsga2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.nsga2.genes.DoubleGene;
+import algorithms.nsga2.genes.Gene;
+import algorithms.nsga2.genes.IntegerGene;
+
+/**
+ * Le croisement SBX et la mutation polynomiale de IntegerGene et DoubleGene.
+ * mutate modifie le gne en place : sa valeur est remise au milieu de l'intervalle avant chaque appel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneBenchmark {
+
+	private static final int INTEGER_MIDDLE = 1 << 20;
+	private static final double DOUBLE_MIDDLE = 0.5;
+
+	private IntegerGene integerA;
+	private IntegerGene integerB;
+	private IntegerGene integerMutant;
+	private DoubleGene doubleA;
+	private DoubleGene doubleB;
+	private DoubleGene doubleMutant;
+
+	@Setup
+	public void setUp() {
+		integerA = new IntegerGene(INTEGER_MIDDLE/3, 0, 2*INTEGER_MIDDLE);
+		integerB = new IntegerGene(3*INTEGER_MIDDLE/2, 0, 2*INTEGER_MIDDLE);
+		integerMutant = new IntegerGene(INTEGER_MIDDLE, 0, 2*INTEGER_MIDDLE);
+		doubleA = new DoubleGene(0.2, 0d, 1d);
+		doubleB = new DoubleGene(0.7, 0d, 1d);
+		doubleMutant = new DoubleGene(DOUBLE_MIDDLE, 0d, 1d);
+	}
+
+	@Benchmark
+	public Gene[] integerCrossover() {
+		return integerA.crossover(integerA, integerB);
+	}
+
+	@Benchmark
+	public Gene integerMutate() {
+		integerMutant.value = INTEGER_MIDDLE;
+		integerMutant.mutate();
+
+		return integerMutant;
+	}
+
+	@Benchmark
+	public Gene[] doubleCrossover() {
+		return doubleA.crossover(doubleA, doubleB);
+	}
+
+	@Benchmark
+	public Gene doubleMutate() {
+		doubleMutant.value = DOUBLE_MIDDLE;
+		doubleMutant.mutate();
+
+		return doubleMutant;
+	}
+}
@@ -0,0 +1,57 @@
+package algorithms.nsga2;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Individual.compareTo (une vue sur Population.compare), appel O(n) fois par gnration par les tournois : des paires successives d'une population alatoire,
+ * pour que la prdiction de branchement ne voie pas toujours la mme dominance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndividualBenchmark {
+
+	/** puissance de 2 : l'index tourne par masque */
+	private static final int SIZE = 1024;
+
+	@Param({"2", "3", "5", "10"})
+	public int m;
+
+	private Individual[] individuals;
+	private int index;
+
+	@Setup
+	public void setUp() {
+		Population population = Populations.random(Populations.genome(m), SIZE, new Random(Populations.SEED));
+
+		individuals = new Individual[SIZE];
+		for (int i=0 ; i<SIZE ; i++) {
+			individuals[i] = population.get(i);
+		}
+	}
+
+	@Benchmark
+	public int compareTo() {
+		Individual A = individuals[index];
+		Individual B = individuals[(index+1) & (SIZE-1)];
+		index = (index+1) & (SIZE-1);
+
+		return A.compareTo(B);
+	}
+}
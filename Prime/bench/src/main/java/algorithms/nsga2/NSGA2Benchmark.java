@@ -0,0 +1,117 @@
+package algorithms.nsga2;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Les oprateurs de NSGA2, chacun seul, sur une population synthtique de n individus  m objectifs.
+ * removeClones compacte sa population : il reoit une copie (O(n), ngligeable).
+ * removeClones et fastNonDominatedSort sont quadratiques (en temps, et en mmoire pour le second) : les paramtres
+ * par dfaut s'arrtent  10^4. Au-del, ne mesurer que les oprateurs sous-quadratiques, par exemple
+ *
+ * 		java -jar target/benchmarks.jar "NSGA2Benchmark.(efficientNonDominatedSort|getFronts|crowdingDistanceSelection)" -p n=100000 -p m=2,10
+ *
+ * getFronts passe par efficientNonDominatedSort : la diffrence entre les deux est la recopie des fitnesses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NSGA2Benchmark {
+
+	@Param({"100", "1000", "10000"})
+	public int n;
+
+	@Param({"2", "3", "5", "10"})
+	public int m;
+
+	private NSGA2 nsga2;
+	private Population population;
+	/** tous les individus, comme un seul front */
+	private int[] all;
+	/** la population suivie de clones de sa premire moiti, comme R = P U Q aprs quelques gnrations */
+	private Population withClones;
+	/** les fitnesses de la population, individu par individu */
+	private double[] objectives;
+	/** la descendance, rutilise d'une invocation  l'autre */
+	private Population offspring;
+
+	@Setup
+	public void setUp() {
+		Map<String, Map> genome = Populations.genome(m);
+		Random random = new Random(Populations.SEED);
+
+		nsga2 = new NSGA2(genome);
+		population = Populations.random(genome, n, random);
+		offspring = new Population(genome);
+		withClones = new Population(genome, n + n/2);
+		withClones.addAll(population);
+
+		all = new int[n];
+		for (int i=0 ; i<n ; i++) {
+			all[i] = i;
+			if (i < n/2) {
+				withClones.add(population, i);
+			}
+		}
+
+		objectives = population.getObjectives().clone();
+	}
+
+	@Benchmark
+	public int[][] getFronts() {
+		return nsga2.getFronts(population);
+	}
+
+	@Benchmark
+	public int[] fastNonDominatedSort() {
+		return NonDominatedSorting.fastNonDominatedSort(objectives, n, m, null);
+	}
+
+	@Benchmark
+	public int[] efficientNonDominatedSort() {
+		return NonDominatedSorting.efficientNonDominatedSort(objectives, n, m, null);
+	}
+
+	@Benchmark
+	public int[] crowdingDistanceSelection() {
+		return nsga2.crowdingDistanceSelection(population, all, n/2);
+	}
+
+	@Benchmark
+	public int[] getTwoParents() {
+		return nsga2.getTwoParents(population);
+	}
+
+	@Benchmark
+	public Population getOffspring() {
+		nsga2.getOffspring(population, offspring);
+
+		return offspring;
+	}
+
+	@Benchmark
+	public Population removeClones() {
+		Population R = new Population(withClones.getGenome(), withClones.size());
+		R.addAll(withClones);
+
+		nsga2.removeClones(R);
+
+		return R;
+	}
+}
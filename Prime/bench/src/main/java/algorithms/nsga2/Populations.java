@@ -0,0 +1,76 @@
+package algorithms.nsga2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import algorithms.nsga2.genes.DoubleGene;
+import algorithms.nsga2.genes.Gene;
+
+/**
+ * Populations synthtiques pour les benchmarks : deux gnes rels x1 et x2 dans [0, 1], M objectifs
+ * dont les valeurs sont tires uniformment dans [0, 1[ (sans appeler evaluate), et aucune contrainte.
+ * La graine est fixe : chaque fork mesure la mme population.
+ */
+final class Populations {
+
+	static final long SEED = 0x5052494DL;
+
+	private Populations() {
+
+	}
+
+	/**
+	 * @return un gnme  deux gnes et M objectifs f0 ... f(M-1)
+	 */
+	static Map<String, Map> genome(int objectives) {
+		Map<String, Gene> genes = new HashMap<>();
+
+		genes.put("x1", new DoubleGene(0d, 1d));
+		genes.put("x2", new DoubleGene(0d, 1d));
+
+		Map<String, Fitness> fitnesses = new HashMap<>();
+
+		for (int k=0 ; k<objectives ; k++) {
+			int axis = k;
+			fitnesses.put("f" + k, new Fitness() {
+				public double compute(Map<String, Gene> genes) {
+					Double x1 = ((DoubleGene) genes.get("x1")).value;
+					Double x2 = ((DoubleGene) genes.get("x2")).value;
+
+					return Math.abs(x1 - (double) axis / objectives) + x2;
+				}
+			});
+		}
+
+		Map<String, Map> genome = new HashMap<>();
+
+		genome.put("GENES", genes);
+		genome.put("FITNESSES", fitnesses);
+		genome.put("CONSTRAINTS", new HashMap<String, Constraint>());
+
+		return genome;
+	}
+
+	/**
+	 * @return une population de n individus aux gnes et aux fitnesses alatoires
+	 */
+	static Population random(Map<String, Map> genome, int n, Random random) {
+		Population population = new Population(genome, n);
+
+		for (int i=0 ; i<n ; i++) {
+			int individual = population.add();
+
+			for (int k=0 ; k<genome.get("GENES").size() ; k++) {
+				DoubleGene gene = (DoubleGene) population.getGene(individual, k);
+				gene.value = random.nextDouble();
+				population.setGene(individual, k, gene);
+			}
+			for (int j=0 ; j<population.getObjectiveCount() ; j++) {
+				population.setObjective(individual, j, random.nextDouble());
+			}
+		}
+
+		return population;
+	}
+}
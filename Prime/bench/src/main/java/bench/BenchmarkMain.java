@@ -0,0 +1,35 @@
+package bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entre de benchmarks.jar : les mmes options que JMH, avec le profileur GC toujours actif,
+ * pour que gc.alloc.rate.norm (octets allous par opration) figure dans chaque rsultat.
+ *
+ * 		java -jar target/benchmarks.jar ToolboxIntBenchmark -p n=1000003
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions command = new CommandLineOptions(args);
+
+		// listes et aide : rien  mesurer
+		if (command.shouldHelp() || command.shouldList() || command.shouldListWithParams()
+				|| command.shouldListProfilers() || command.shouldListResultFormats()) {
+			Main.main(args);
+			return;
+		}
+
+		Options options = new OptionsBuilder()
+				.parent(command)
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,36 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Toolbox.getTheLowestFactors : la table des plus petits facteurs, puis la liste de N-1 Integer.
+ * gc.alloc.rate.norm en montre le cot en mmoire, proportionnel  N.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LowestFactorsBenchmark {
+
+	@Param({"10000", "100000", "1000000", "10000000"})
+	public int n;
+
+	@Benchmark
+	public List<?> getTheLowestFactors() throws Throwable {
+		return (List<?>) ToolboxHandles.GET_THE_LOWEST_FACTORS.invokeExact(n);
+	}
+}
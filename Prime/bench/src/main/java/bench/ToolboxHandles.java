@@ -0,0 +1,35 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Toolbox est dans le paquetage par dfaut, qu'aucune classe d'un paquetage nomm (dont celles gnres par JMH)
+ * ne peut importer : ses mthodes sont donc appeles par des MethodHandle. Rangs dans des champs static final,
+ * ils sont traits comme des constantes par le JIT et invokeExact ne cote alors pas plus qu'un appel direct.
+ */
+final class ToolboxHandles {
+
+	static final MethodHandle IS_PRIME_INT = find("isPrime", boolean.class, int.class);
+	static final MethodHandle IS_PRIME_LONG = find("isPrime", boolean.class, long.class);
+	static final MethodHandle GET_NEXT_PRIME_INT = find("getNextPrime", int.class, int.class);
+	static final MethodHandle GET_NEXT_PRIME_LONG = find("getNextPrime", long.class, long.class);
+	static final MethodHandle GET_PRIME_FACTORIZATION_INT = find("getPrimeFactorization", java.util.List.class, int.class);
+	static final MethodHandle GET_PRIME_FACTORIZATION_LONG = find("getPrimeFactorization", java.util.List.class, long.class);
+	static final MethodHandle GET_THE_LOWEST_FACTORS = find("getTheLowestFactors", java.util.List.class, int.class);
+
+	private ToolboxHandles() {
+
+	}
+
+	private static MethodHandle find(String name, Class<?> returnType, Class<?>... parameterTypes) {
+		try {
+			Class<?> toolbox = Class.forName("Toolbox");
+			return MethodHandles.publicLookup().findStatic(toolbox, name, MethodType.methodType(returnType, parameterTypes));
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Toolbox." + name + " introuvable", e);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Toolbox.isPrime, getNextPrime et getPrimeFactorization sur des int, de 10^4  10^9 :
+ * N premier (le pire cas de la division par essais), et N-1 compos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolboxIntBenchmark {
+
+	/** des nombres premiers proches de 10^4, 10^5, ..., 10^9 */
+	@Param({"10007", "100003", "1000003", "10000019", "100000007", "1000000007"})
+	public int n;
+
+	@Benchmark
+	public boolean isPrime() throws Throwable {
+		return (boolean) ToolboxHandles.IS_PRIME_INT.invokeExact(n);
+	}
+
+	@Benchmark
+	public boolean isPrimeComposite() throws Throwable {
+		return (boolean) ToolboxHandles.IS_PRIME_INT.invokeExact(n-1);
+	}
+
+	@Benchmark
+	public int getNextPrime() throws Throwable {
+		return (int) ToolboxHandles.GET_NEXT_PRIME_INT.invokeExact(n);
+	}
+
+	@Benchmark
+	public List<?> getPrimeFactorization() throws Throwable {
+		return (List<?>) ToolboxHandles.GET_PRIME_FACTORIZATION_INT.invokeExact(n-1);
+	}
+}
@@ -0,0 +1,48 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Toolbox.isPrime, getNextPrime et getPrimeFactorization sur des long (Miller-Rabin, rho de Pollard-Brent)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolboxLongBenchmark {
+
+	/**
+	 * 10^12 + 39 (premier), 2^61 - 1 (premier de Mersenne), (2^31 - 1)^2 et 1000003 * 1000000007 (rho)
+	 */
+	@Param({"1000000000039", "2305843009213693951", "4611686014132420609", "1000003007000021"})
+	public long n;
+
+	@Benchmark
+	public boolean isPrime() throws Throwable {
+		return (boolean) ToolboxHandles.IS_PRIME_LONG.invokeExact(n);
+	}
+
+	@Benchmark
+	public long getNextPrime() throws Throwable {
+		return (long) ToolboxHandles.GET_NEXT_PRIME_LONG.invokeExact(n);
+	}
+
+	@Benchmark
+	public List<?> getPrimeFactorization() throws Throwable {
+		return (List<?>) ToolboxHandles.GET_PRIME_FACTORIZATION_LONG.invokeExact(n);
+	}
+}
@@ -0,0 +1,144 @@
+package algorithms.sieve;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Les vnements JFR des cribles,  enregistrer par exemple avec
+ * -XX:StartFlightRecording:filename=primes.jfr puis  lire avec "jfr print --events algorithms.sieve.* primes.jfr".
+ *
+ * Cette classe est dans le dossier de sources jfr, compil avec src par le projet Eclipse et par le module bench :
+ * il faut un JDK qui a jdk.jfr (8u262 et suivants). SieveMetrics la charge par rflexion, et s'en passe si elle
+ * n'a pas t compile (src seul, sur un Java 8 plus ancien) ou si la JVM n'a pas JFR.
+ * Sans enregistrement en cours, isEnabled() rend FALSE et aucun vnement n'est construit.
+ */
+final class SieveEvents implements SieveRecorder {
+
+	private static final SegmentEvent SEGMENT = new SegmentEvent();
+	private static final ProcessEvent PROCESS = new ProcessEvent();
+
+	SieveEvents() {
+
+	}
+
+	@Override
+	public boolean isRecording() {
+		return SEGMENT.isEnabled() || PROCESS.isEnabled();
+	}
+
+	@Override
+	public void segment(long low, int bytes, int primes, long nanos) {
+		SegmentEvent event = new SegmentEvent();
+		if (event.isEnabled()) {
+			event.low = low;
+			event.bytes = bytes;
+			event.primes = primes;
+			event.sieveTime = nanos;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void basePrimes(long limit, int count) {
+		BasePrimesEvent event = new BasePrimesEvent();
+		if (event.isEnabled()) {
+			event.limit = limit;
+			event.count = count;
+			event.bytes = 4L*count;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void process(long from, long to, int chunks, int parallelism, long elapsed, long busy, long idle) {
+		ProcessEvent event = new ProcessEvent();
+		if (event.isEnabled()) {
+			event.from = from;
+			event.to = to;
+			event.chunks = chunks;
+			event.parallelism = parallelism;
+			event.elapsed = elapsed;
+			event.busy = busy;
+			event.idle = idle;
+			event.commit();
+		}
+	}
+
+	@Name("algorithms.sieve.Segment")
+	@Label("Segment cribl")
+	@Description("Un segment du crible segment : taille, temps de crible et nombres premiers trouvs")
+	@Category({"Primes", "Crible"})
+	@StackTrace(false)
+	static class SegmentEvent extends Event {
+
+		@Label("Dbut")
+		long low;
+
+		@Label("Octets")
+		@DataAmount
+		int bytes;
+
+		@Label("Nombres premiers")
+		int primes;
+
+		@Label("Temps de crible")
+		@Timespan(Timespan.NANOSECONDS)
+		long sieveTime;
+	}
+
+	@Name("algorithms.sieve.BasePrimes")
+	@Label("Table des premiers de base")
+	@Description("La table des premiers jusqu' racine de la borne, construite avec un SegmentedSieve")
+	@Category({"Primes", "Crible"})
+	@StackTrace(false)
+	static class BasePrimesEvent extends Event {
+
+		@Label("Borne")
+		long limit;
+
+		@Label("Premiers de base")
+		int count;
+
+		@Label("Taille")
+		@DataAmount
+		long bytes;
+	}
+
+	@Name("algorithms.sieve.Process")
+	@Label("Crible parallle")
+	@Description("Un ParallelSieve.process : temps total, travail et inactivit des workers")
+	@Category({"Primes", "Crible"})
+	@StackTrace(false)
+	static class ProcessEvent extends Event {
+
+		@Label("De")
+		long from;
+
+		@Label("A")
+		long to;
+
+		@Label("Tranches")
+		int chunks;
+
+		@Label("Workers")
+		int parallelism;
+
+		@Label("Dure")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsed;
+
+		@Label("Travail des workers")
+		@Timespan(Timespan.NANOSECONDS)
+		long busy;
+
+		@Label("Inactivit des workers")
+		@Timespan(Timespan.NANOSECONDS)
+		long idle;
+	}
+}
@@ -1,37 +1,149 @@
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+import algorithms.analysis.PrimeAnalysis;
+import algorithms.analysis.PrimeAnalyzer;
+import algorithms.arithmetic.BailliePSW;
+import algorithms.arithmetic.BatchPrimality;
+import algorithms.arithmetic.FactorizationCache;
+import algorithms.arithmetic.MillerRabin;
+import algorithms.arithmetic.PollardRho;
+import algorithms.arithmetic.SmallestFactorTable;
+import algorithms.sieve.LowestFactorRuns;
+import algorithms.sieve.PrimeIndex;
+import algorithms.sieve.PrimeIterator;
+import algorithms.sieve.PrimeQueries;
 
 public class Toolbox {
 
+	/** le plus grand nombre premier sur 63 bits : au-del, le suivant ne tient plus dans un long */
+	private static final long LARGEST_LONG_PRIME = 9223372036854775783L;
+	/** en dessous, isPrime(int) garde la division par essais ; au-dessus, Miller-Rabin est plus rapide */
+	private static final int INT_TRIAL_DIVISION_LIMIT = 1 << 16;
+
+	/** l'index des nombres premiers sur disque, s'il y en a un (voir usePrimeIndex) */
+	private static volatile PrimeIndex primeIndex;
+	/** le cache des dcompositions, s'il y en a un (voir useFactorizationCache) */
+	private static volatile FactorizationCache factorizationCache;
+	/** les repres (x, pi(x)) partags par getNthPrime et countPrimes, crs au premier appel */
+	private static PrimeQueries primeQueries;
+
 	public Toolbox() {
 		
 	}
 	
+	/**
+	 * Branche l'index enregistr dans FILE, cr (crible complet) s'il ne couvre pas [0, LIMIT] :
+	 * dans sa plage, isPrime et getNextPrime ne font plus qu'une lecture de bit
+	 */
+	public static PrimeIndex usePrimeIndex(Path file, long limit) throws IOException {
+		primeIndex = PrimeIndex.openOrCreate(file, limit);
+		
+		return primeIndex;
+	}
+	
+	/**
+	 * Branche INDEX (null pour revenir aux calculs)
+	 */
+	public static void setPrimeIndex(PrimeIndex index) {
+		primeIndex = index;
+	}
+	
+	/**
+	 * Branche un cache des dcompositions partag entre threads : getPrimeFactorization lit les entiers
+	 * jusqu' TABLELIMIT dans une table des plus petits facteurs et garde les CAPACITY dernires dcompositions au-del
+	 */
+	public static FactorizationCache useFactorizationCache(int tableLimit, int capacity) {
+		factorizationCache = new FactorizationCache(tableLimit, capacity);
+		
+		return factorizationCache;
+	}
+	
+	/**
+	 * Branche CACHE (null pour revenir aux calculs)
+	 */
+	public static void setFactorizationCache(FactorizationCache cache) {
+		factorizationCache = cache;
+	}
+	
 	/**
 	 * @return la dcomposition de N en une multiplication de nombres premiers (exemple : 12 => [2, 2, 3])
 	 */
 	public static List<Integer> getPrimeFactorization(int n) {
 		List<Integer> factors = new ArrayList<>();
-		int f = 2;
 		
-		while (n>1) {
-			// tant que F est un facteur de N
-			while (n%f==0) {
-				n = n/f;
-				factors.add(f);
-			}
-
-			f = getNextPrime(f);
+		for (long f : factor(n)) {
+			factors.add((int) f);
 		}
 		
 		return factors;
 	}
 	
+	/**
+	 * @return la dcomposition de N en une multiplication de nombres premiers
+	 * (division par essais, Miller-Rabin puis rho de Pollard-Brent sur les cofacteurs)
+	 */
+	public static List<Long> getPrimeFactorization(long n) {
+		List<Long> factors = new ArrayList<>();
+		
+		for (long f : factor(n)) {
+			factors.add(f);
+		}
+		
+		return factors;
+	}
+	
+	/**
+	 * @return la dcomposition de N en facteurs premiers, par ordre croissant : le calcul sur 64 bits
+	 * (et le cache ventuel) tant que N tient dans un long, les BigInteger au-del
+	 */
+	public static List<BigInteger> getPrimeFactorization(BigInteger n) {
+		if (n.bitLength()<64) {
+			List<BigInteger> factors = new ArrayList<>();
+			
+			for (long f : factor(n.longValue())) {
+				factors.add(BigInteger.valueOf(f));
+			}
+			
+			return factors;
+		}
+		
+		return PollardRho.factor(n);
+	}
+	
+	private static long[] factor(long n) {
+		FactorizationCache cache = factorizationCache;
+		
+		return (cache!=null) ? cache.factor(n) : PollardRho.factor(n);
+	}
+	
 	/**
 	 * @return le nombre premier juste aprs le nombre N
 	 */
 	public static int getNextPrime(int n) {
+		if (n>=Integer.MAX_VALUE) {
+			throw new ArithmeticException("le nombre premier suivant " + n + " dpasse Integer.MAX_VALUE");
+		}
+		
+		PrimeIndex index = primeIndex;
+		if (index!=null && n>=2) {
+			long p = index.nextPrime(n);
+			if (p>=0 && p<=Integer.MAX_VALUE) {
+				return (int) p;
+			}
+		}
+		
+		if (n<2) {
+			return 2;
+		}
+		
 		int i = (n%2==0) ? (n+1) : (n+2);
 		
 		while ( ! isPrime(i)) {
@@ -41,16 +153,118 @@ public class Toolbox {
 		return i;
 	}
 	
+	/**
+	 * @return le plus petit nombre premier strictement suprieur  N
+	 */
+	public static long getNextPrime(long n) {
+		if (n>=LARGEST_LONG_PRIME) {
+			throw new ArithmeticException("le nombre premier suivant " + n + " dpasse Long.MAX_VALUE (voir getNextPrime(BigInteger))");
+		}
+		
+		PrimeIndex index = primeIndex;
+		if (index!=null) {
+			long p = index.nextPrime(n);
+			if (p>=0) {
+				return p;
+			}
+		}
+		
+		if (n<2) {
+			return 2;
+		}
+		
+		long i = (n%2==0) ? (n+1) : (n+2);
+		while ( ! MillerRabin.isPrime(i)) {
+			i += 2;
+		}
+		
+		return i;
+	}
+	
+	/**
+	 * @return le plus petit nombre premier strictement suprieur  N (sur 64 bits tant que le rsultat y tient)
+	 */
+	public static BigInteger getNextPrime(BigInteger n) {
+		if (n.signum()<0) {
+			return BigInteger.valueOf(2);
+		}
+		
+		if (n.compareTo(BigInteger.valueOf(LARGEST_LONG_PRIME))<0) {
+			return BigInteger.valueOf(getNextPrime(n.longValue()));
+		}
+		
+		BigInteger i = n.testBit(0) ? n.add(BigInteger.valueOf(2)) : n.add(BigInteger.ONE);
+		while ( ! BailliePSW.isPrime(i)) {
+			i = i.add(BigInteger.valueOf(2));
+		}
+		
+		return i;
+	}
+	
+	/**
+	 * @return le N-ime nombre premier (N >= 1)
+	 */
+	public static long getNthPrime(long n) {
+		
+		return getPrimeQueries().nthPrime(n);
+	}
+	
+	/**
+	 * @return le nombre de nombres premiers dans [A, B]
+	 */
+	public static long countPrimes(long a, long b) {
+		
+		return getPrimeQueries().count(a, b);
+	}
+	
+	private static synchronized PrimeQueries getPrimeQueries() {
+		if (primeQueries==null) {
+			primeQueries = new PrimeQueries();
+		}
+		
+		return primeQueries;
+	}
+	
+	/**
+	 * @return les nombres premiers de [FROM, TO], produits  la demande par un crible segment
+	 */
+	public static LongStream getPrimes(long from, long to) {
+		
+		return PrimeIterator.primes(from, to);
+	}
+	
+	/**
+	 * @return les rsultats des ANALYZERS (carts, k-uplets, rsidus...) sur les nombres premiers de [FROM, TO],
+	 * calculs en une seule passe parallle du crible, sans liste des nombres premiers
+	 */
+	public static PrimeAnalysis.Results analyzePrimes(long from, long to, PrimeAnalyzer<?>... analyzers) {
+		
+		return new PrimeAnalysis(to).run(from, to, analyzers);
+	}
+	
 	/**
 	 * @return TRUE si le nombre N est premier
 	 */
 	public static boolean isPrime(int n) {
+		PrimeIndex index = primeIndex;
+		if (index!=null && n>=0 && n<=index.getLimit()) {
+			return index.isPrime(n);
+		}
 		
-		if (n%2==0) {
+		if (n<2) {
 			return false;
 		}
 		
-		for (int i=3 ; i<=Math.sqrt(n)+1 ; i+=2) {
+		if (n>=INT_TRIAL_DIVISION_LIMIT) {
+			return MillerRabin.isPrime(n);
+		}
+		
+		if (n%2==0) {
+			return n==2;
+		}
+		
+		int sqrt = (int) Math.sqrt(n);
+		for (int i=3 ; i<=sqrt ; i+=2) {
 			if (n%i==0) {
 				return false;
 			}
@@ -59,19 +273,74 @@ public class Toolbox {
 		return true;
 	}
 	
+	/**
+	 * @return TRUE si le nombre N est premier (Miller-Rabin dterministe sur 64 bits)
+	 */
+	public static boolean isPrime(long n) {
+		PrimeIndex index = primeIndex;
+		if (index!=null && n>=0 && n<=index.getLimit()) {
+			return index.isPrime(n);
+		}
+		
+		return MillerRabin.isPrime(n);
+	}
+	
+	/**
+	 * @return TRUE si le nombre N est premier (Baillie-PSW au-del de 63 bits)
+	 */
+	public static boolean isPrime(BigInteger n) {
+		
+		return BailliePSW.isPrime(n);
+	}
+	
+	/**
+	 * OUT[i] = TRUE si IN[i] est premier : un filtrage commun par les petits premiers,
+	 * Miller-Rabin sur les seuls survivants, et les grands lots rpartis sur les coeurs
+	 */
+	public static void isPrime(long[] in, boolean[] out) {
+		
+		new BatchPrimality().isPrime(in, out);
+	}
+	
+	/**
+	 * OUT = les indices i tels que IN[i] est premier
+	 */
+	public static void isPrime(long[] in, BitSet out) {
+		
+		new BatchPrimality().isPrime(in, out);
+	}
+	
 	/**
 	 * @return pour les nombres de 1  N, rcupre le plus petits facteurs premiers
 	 */
 	public static List<Integer> getTheLowestFactors(int n) {
-		List<Integer> lowestFactor = new ArrayList<>();
+		SmallestFactorTable table = getSmallestFactorTable(n);
+		List<Integer> lowestFactor = new ArrayList<>(Math.max(n-1, 0));
 		
 		for (int i=2 ; i<=n ; i++) {
-			lowestFactor.add(getPrimeFactorization(i).get(0));
+			lowestFactor.add(table.smallestFactor(i));
 		}
 		
 		return lowestFactor;
 	}
 	
+	/**
+	 * @return la table des plus petits facteurs premiers de 2  N (crible linaire, sans boxing)
+	 */
+	public static SmallestFactorTable getSmallestFactorTable(int n) {
+		
+		return new SmallestFactorTable(n);
+	}
+	
+	/**
+	 * Mme rsultat que translateTheLowestFactors(getTheLowestFactors(N), NUMBER), envoy plage par plage  SINK,
+	 * sans construire la liste des plus petits facteurs (crible parallle, mmoire indpendante de N)
+	 */
+	public static void translateTheLowestFactors(long n, int number, LongConsumer sink) {
+		
+		new LowestFactorRuns().encode(n, number, sink);
+	}
+	
 	public static List<Integer> translateTheLowestFactors(List<Integer> unnamed, int number) {
 		List<Integer> translation = new ArrayList<>();
 		int counter = 0;
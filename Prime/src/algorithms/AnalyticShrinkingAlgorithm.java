@@ -0,0 +1,106 @@
+package algorithms;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import algorithms.sieve.SegmentedSieve;
+
+/**
+ * Mme courbe "Evolution de la taille" que SetShrinkingAlgorithm, mais sans construire l'ensemble :
+ * aprs le retrait des multiples des k premiers nombres premiers, il reste phi(N, k) nombres
+ * (1 et les entiers dont le plus petit facteur dpasse p_k), et ces valeurs se comptent directement.
+ *
+ * Pour chaque v de la forme N/i, S(v) compte les entiers de [2, v] premiers ou sans facteur <= p ;
+ * le passage de p-1  p (p premier) se fait par
+ *
+ * 		S(v) -= S(v/p) - S(p-1)		pour v >= p^2
+ *
+ * d'o phi(N, k) = 1 + S(N) - k. Il faut O(N^3/4) oprations et deux tableaux de racine de N entiers,
+ * ce qui permet d'aller jusqu' 10^12 (et donne pi(N) au passage).
+ */
+public class AnalyticShrinkingAlgorithm {
+
+	private final long N;
+	/** l'volution de la taille de l'ensemble au fil des itrations, comme SetShrinkingAlgorithm */
+	private final List<Long> sizes = new ArrayList<>();
+	/** le nombre de nombres premiers dans [1, N] */
+	private long count;
+
+	public AnalyticShrinkingAlgorithm(long N) {
+
+		this.N = N;
+	}
+
+	public void run() {
+		Instant start = Instant.now();
+
+		this.core();
+
+		Instant end = Instant.now();
+
+		System.out.println("Temps: " + Duration.between(start, end).toMillis() + " ms");
+		System.out.println("Ensemble = [1, " + N + "]");
+		System.out.println("Nombres premiers : " + count);
+		System.out.println("Evolution de la taille (" + sizes.size() + ") : " + sizes.toString());
+	}
+
+	/**
+	 * L'algorithme : met  jour S(N/i) pour chaque premier p <= racine de N, et relve phi(N, k) aprs chacun
+	 */
+	protected void core() {
+		int r = (int) SegmentedSieve.isqrt(Math.max(N, 0));
+		// SMALL[v] = S(v) pour v <= R, LARGE[i] = S(N/i) pour i <= R
+		long[] small = new long[r+1];
+		long[] large = new long[r+1];
+
+		for (int i=1 ; i<=r ; i++) {
+			small[i] = i-1;
+			large[i] = N/i - 1;
+		}
+
+		// les deux premires valeurs, reprises telles que SetShrinkingAlgorithm les calcule (N/2 arrondi par dfaut)
+		sizes.clear();
+		sizes.add(N);
+		sizes.add(N/2);
+		long coprimeTo6 = (N/6)*2 + ((N%6>=1) ? 1 : 0) + ((N%6>=5) ? 1 : 0);
+		sizes.add(Math.max(coprimeTo6, 1));
+
+		int k = 0;
+		for (int p=2 ; p<=r ; p++) {
+			// P n'est premier que si S ne bouge pas entre P-1 et P
+			if (small[p]==small[p-1]) {
+				continue;
+			}
+
+			long sp = small[p-1];
+			long p2 = (long) p*p;
+			int end = (int) Math.min(r, N/p2);
+
+			for (int i=1 ; i<=end ; i++) {
+				long d = (long) i*p;
+				large[i] -= ((d<=r) ? large[(int) d] : small[(int) (N/d)]) - sp;
+			}
+			for (int v=r ; v>=p2 ; v--) {
+				small[v] -= small[v/p] - sp;
+			}
+
+			k++;
+			// 2 et 3 sont dj compts
+			if (p>3) {
+				sizes.add(1 + large[1] - k);
+			}
+		}
+
+		count = (r>0) ? large[1] : 0;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public List<Long> getSizes() {
+		return sizes;
+	}
+}
@@ -0,0 +1,118 @@
+package algorithms;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongConsumer;
+
+/**
+ * Crible d'Atkin : un entier n > 3 sans facteur carr est premier si et seulement si le nombre de solutions
+ * (x, y > 0) de la forme quadratique associe  n mod 12 est impair :
+ * 		n mod 12 = 1 ou 5	4x^2 + y^2 = n
+ * 		n mod 12 = 7		3x^2 + y^2 = n
+ * 		n mod 12 = 11		3x^2 - y^2 = n	(x > y)
+ * On inverse donc un bit pour chaque solution, puis on retire les multiples des carrs des premiers.
+ * Un boolen par nombre (N <= Integer.MAX_VALUE - 8).
+ */
+public class AtkinAlgorithm implements PrimeGenerator {
+
+	private final long N;
+	/** IS_PRIME[I] : TRUE si I est premier */
+	private boolean[] isPrime;
+	/** le nombre de nombres premiers dans [1, N] */
+	private long count;
+
+	public AtkinAlgorithm(long N) {
+		if (N>Integer.MAX_VALUE-8) {
+			throw new IllegalArgumentException("N trop grand : " + N);
+		}
+
+		this.N = N;
+		this.count = 0;
+	}
+
+	public void run() {
+		Instant start = Instant.now();
+
+		this.core();
+
+		Instant end = Instant.now();
+
+		System.out.println("Temps: " + Duration.between(start, end).toMillis() + " ms");
+		System.out.println("Ensemble = [1, " + N + "]");
+		System.out.println("Nombres premiers : " + count);
+	}
+
+	/**
+	 * L'algorithme : numre les trois formes quadratiques, puis limine les multiples des carrs
+	 */
+	protected void core() {
+		int n = (int) Math.max(N, 0);
+		isPrime = new boolean[n+1];
+
+		for (long x=1 ; x*x<=n ; x++) {
+			for (long y=1, m=4*x*x+1 ; m<=n ; y++, m=4*x*x+y*y) {
+				if (m%12==1 || m%12==5) {
+					isPrime[(int) m] ^= true;
+				}
+			}
+			for (long y=1, m=3*x*x+1 ; m<=n ; y++, m=3*x*x+y*y) {
+				if (m%12==7) {
+					isPrime[(int) m] ^= true;
+				}
+			}
+			// 3x^2 - y^2 crot quand y dcrot
+			for (long y=x-1, m=3*x*x-y*y ; y>=1 && m<=n ; y--, m=3*x*x-y*y) {
+				if (m%12==11) {
+					isPrime[(int) m] ^= true;
+				}
+			}
+		}
+
+		for (long r=5 ; r*r<=n ; r++) {
+			if (isPrime[(int) r]) {
+				for (long k=r*r ; k<=n ; k+=r*r) {
+					isPrime[(int) k] = false;
+				}
+			}
+		}
+
+		if (n>=2) {
+			isPrime[2] = true;
+		}
+		if (n>=3) {
+			isPrime[3] = true;
+		}
+
+		count = 0;
+		for (int i=2 ; i<=n ; i++) {
+			if (isPrime[i]) {
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [1, N], par ordre croissant
+	 */
+	@Override
+	public void generate(LongConsumer action) {
+		if (isPrime==null) {
+			this.core();
+		}
+
+		for (int i=2 ; i<isPrime.length ; i++) {
+			if (isPrime[i]) {
+				action.accept(i);
+			}
+		}
+	}
+
+	@Override
+	public long getN() {
+		return N;
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,92 @@
+package algorithms;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongConsumer;
+
+/**
+ * Crible d'Eratosthne simple, sur les seuls impairs : un boolen par impair de [1, N], chaque premier p
+ * raye ses multiples impairs  partir de p^2. C'est la forme directe de SetShrinkingAlgorithm.filter,
+ * sans liste ni boxing, mais avec un tableau de N/2 octets (N < 2^32).
+ */
+public class EratosthenesAlgorithm implements PrimeGenerator {
+
+	private final long N;
+	/** COMPOSITE[K] : TRUE si 2K+1 est compos */
+	private boolean[] composite;
+	/** le nombre de nombres premiers dans [1, N] */
+	private long count;
+
+	public EratosthenesAlgorithm(long N) {
+		if (N/2>=Integer.MAX_VALUE-8) {
+			throw new IllegalArgumentException("N trop grand : " + N);
+		}
+
+		this.N = N;
+		this.count = 0;
+	}
+
+	public void run() {
+		Instant start = Instant.now();
+
+		this.core();
+
+		Instant end = Instant.now();
+
+		System.out.println("Temps: " + Duration.between(start, end).toMillis() + " ms");
+		System.out.println("Ensemble = [1, " + N + "]");
+		System.out.println("Nombres premiers : " + count);
+	}
+
+	/**
+	 * L'algorithme : pour chaque impair p non ray tel que p^2 <= N, raye p^2, p^2 + 2p, ...
+	 */
+	protected void core() {
+		int size = (int) ((N+1)/2);
+		composite = new boolean[Math.max(size, 1)];
+		composite[0] = true;
+
+		for (long p=3 ; p*p<=N ; p+=2) {
+			if ( ! composite[(int) (p/2)]) {
+				for (long k=p*p/2 ; k<size ; k+=p) {
+					composite[(int) k] = true;
+				}
+			}
+		}
+
+		count = (N>=2) ? 1 : 0;
+		for (int k=1 ; k<size ; k++) {
+			if ( ! composite[k]) {
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [1, N], par ordre croissant
+	 */
+	@Override
+	public void generate(LongConsumer action) {
+		if (composite==null) {
+			this.core();
+		}
+
+		if (N>=2) {
+			action.accept(2);
+		}
+		for (int k=1 ; k<composite.length && 2L*k+1<=N ; k++) {
+			if ( ! composite[k]) {
+				action.accept(2L*k+1);
+			}
+		}
+	}
+
+	@Override
+	public long getN() {
+		return N;
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,269 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import algorithms.sieve.ParallelSieve;
+import algorithms.sieve.PrimeIterator;
+import algorithms.sieve.SegmentedSieve;
+
+/**
+ * Choix automatique du moteur de gnration des nombres premiers, d'aprs des mesures de calibration :
+ * pour chaque moteur, le temps par nombre de [1, N] pour N = 10^MIN_EXPONENT, ..., 10^MAX_EXPONENT.
+ *
+ * Le temps estim pour un N quelconque est interpol (en log10 N) entre les deux mesures voisines. Pour les moteurs
+ * parallles, il est ensuite divis par le rapport des coeurs utiles (au plus le nombre de tranches de
+ * ParallelSieve : une seule en dessous de 30 * 256 Ko, environ 7,8 millions)  ceux de la calibration.
+ * Les moteurs dont la borne ou la mmoire ne permettent pas N sont carts.
+ *
+ * Les mesures par dfaut ont t releves sur une machine  1 coeur ; calibrate() les refait sur la machine courante.
+ */
+public class GeneratorSelector {
+
+	/** les N de calibration : 10^MIN_EXPONENT, ..., 10^MAX_EXPONENT */
+	public static final int MIN_EXPONENT = 4;
+	public static final int MAX_EXPONENT = 8;
+
+	/**
+	 * Un moteur : son nom, sa fabrique, la plus grande borne qu'il accepte et sa mmoire par nombre de [1, N]
+	 */
+	public static class Backend {
+
+		private final String name;
+		private final LongFunction<PrimeGenerator> factory;
+		private final long maxN;
+		private final double bytesPerNumber;
+		private final boolean parallel;
+
+		public Backend(String name, LongFunction<PrimeGenerator> factory, long maxN, double bytesPerNumber, boolean parallel) {
+			this.name = name;
+			this.factory = factory;
+			this.maxN = maxN;
+			this.bytesPerNumber = bytesPerNumber;
+			this.parallel = parallel;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getMaxN() {
+			return maxN;
+		}
+
+		public boolean isParallel() {
+			return parallel;
+		}
+
+		/**
+		 * @return TRUE si N ne dpasse ni la borne du moteur ni la moiti du tas
+		 */
+		public boolean accepts(long n) {
+			return n<=maxN && n*bytesPerNumber<=Runtime.getRuntime().maxMemory()/2;
+		}
+
+		/**
+		 * @return un gnrateur de [1, N]
+		 */
+		public PrimeGenerator create(long n) {
+			return factory.apply(n);
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/** le crible segment, qui accepte tous les N */
+	private static final Backend SEGMENTED = new Backend("segmented", SegmentedSieveAlgorithm::new, PrimeIterator.MAX_LIMIT, 0, false);
+
+	/** les moteurs disponibles */
+	public static final List<Backend> BACKENDS = Collections.unmodifiableList(Arrays.asList(
+			new Backend("set-shrinking", (long n) -> new SetShrinkingAlgorithm((int) n), 1000000, 64, false),
+			new Backend("eratosthenes", EratosthenesAlgorithm::new, 2L*(Integer.MAX_VALUE-9), 0.5, false),
+			new Backend("linear", LinearSieveAlgorithm::new, Integer.MAX_VALUE, 1, false),
+			new Backend("atkin", AtkinAlgorithm::new, Integer.MAX_VALUE-8, 1, false),
+			SEGMENTED,
+			new Backend("atkin-segmented", SegmentedAtkinAlgorithm::new, PrimeIterator.MAX_LIMIT, 0, false),
+			new Backend("parallel", ParallelSieveAlgorithm::new, PrimeIterator.MAX_LIMIT, 0, true)));
+
+	/** nom du moteur => nanosecondes par nombre pour N = 10^MIN_EXPONENT, ... (NaN : pas de mesure) */
+	private final Map<String, double[]> calibration;
+	/** le nombre de coeurs lors de la calibration */
+	private final int calibrationCores;
+
+	/**
+	 * Slecteur sur les mesures par dfaut
+	 */
+	public GeneratorSelector() {
+		this(defaultCalibration(), 1);
+	}
+
+	public GeneratorSelector(Map<String, double[]> calibration, int calibrationCores) {
+		this.calibration = calibration;
+		this.calibrationCores = calibrationCores;
+	}
+
+	private static Map<String, double[]> defaultCalibration() {
+		double nan = Double.NaN;
+		Map<String, double[]> calibration = new LinkedHashMap<>();
+
+		calibration.put("set-shrinking", new double[]{ 35.4, 94.3, 221.1, nan, nan });
+		calibration.put("eratosthenes", new double[]{ 11.7, 4.01, 4.14, 4.51, 6.75 });
+		calibration.put("linear", new double[]{ 7.95, 4.64, 4.80, 3.98, 4.81 });
+		calibration.put("atkin", new double[]{ 7.27, 5.39, 5.98, 10.3, 18.0 });
+		calibration.put("segmented", new double[]{ 7.90, 3.09, 1.24, 1.07, 1.16 });
+		calibration.put("parallel", new double[]{ 35.6, 7.44, 3.43, 1.25, 1.03 });
+		calibration.put("atkin-segmented", new double[]{ 15.8, 7.00, 4.10, 2.75, 2.25 });
+
+		return calibration;
+	}
+
+	/**
+	 * Mesure chaque moteur (meilleur de REPEAT comptes) pour N = 10^MIN_EXPONENT, ..., 10^MAX_EXPONENT
+	 * @return un slecteur fond sur ces mesures
+	 */
+	public static GeneratorSelector calibrate(int repeat) {
+		Map<String, double[]> calibration = new LinkedHashMap<>();
+
+		for (Backend backend : BACKENDS) {
+			double[] rates = new double[MAX_EXPONENT-MIN_EXPONENT+1];
+			long n = pow10(MIN_EXPONENT);
+
+			for (int e=0 ; e<rates.length ; e++, n*=10) {
+				rates[e] = Double.NaN;
+				if ( ! backend.accepts(n)) {
+					continue;
+				}
+
+				long best = Long.MAX_VALUE;
+				for (int r=0 ; r<repeat ; r++) {
+					long start = System.nanoTime();
+					backend.create(n).count();
+					best = Math.min(best, System.nanoTime()-start);
+				}
+				rates[e] = (double) best/n;
+			}
+
+			calibration.put(backend.getName(), rates);
+		}
+
+		return new GeneratorSelector(calibration, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @return le temps estim (en nanosecondes) de BACKEND pour [1, N] avec CORES coeurs, l'infini s'il ne convient pas
+	 */
+	public double estimate(Backend backend, long n, int cores) {
+		double[] rates = calibration.get(backend.getName());
+		if (rates==null || ! backend.accepts(n)) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		// les mesures qui encadrent N (ou la plus proche)
+		double position = Math.log10(Math.max(n, 1)) - MIN_EXPONENT;
+		int below = -1;
+		int above = -1;
+		for (int e=0 ; e<rates.length ; e++) {
+			if ( ! Double.isNaN(rates[e])) {
+				if (e<=position) {
+					below = e;
+				}
+				else if (above<0) {
+					above = e;
+				}
+			}
+		}
+
+		double rate;
+		if (below<0 && above<0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		else if (below<0) {
+			rate = rates[above];
+		}
+		else if (above<0) {
+			// au-del des mesures : le dernier cot par nombre, sans extrapolation
+			rate = rates[below];
+		}
+		else {
+			double t = (position-below)/(above-below);
+			rate = rates[below] + t*(rates[above]-rates[below]);
+		}
+
+		double time = rate*n;
+		if (backend.isParallel()) {
+			time *= (double) usefulCores(n, calibrationCores)/usefulCores(n, cores);
+		}
+
+		return time;
+	}
+
+	/**
+	 * @return le nombre de coeurs sur lesquels ParallelSieve rpartit [1, N] : au plus un par tranche
+	 */
+	private static long usefulCores(long n, int cores) {
+		cores = Math.max(cores, 1);
+
+		return Math.max(1, Math.min(cores, ParallelSieve.chunks(1, n, SegmentedSieve.SEGMENT_BYTES, cores)));
+	}
+
+	/**
+	 * @return le moteur au temps estim le plus court pour [1, N] avec CORES coeurs
+	 */
+	public Backend select(long n, int cores) {
+		Backend best = null;
+		double bestTime = Double.POSITIVE_INFINITY;
+
+		for (Backend backend : BACKENDS) {
+			double time = estimate(backend, n, cores);
+			if (time<bestTime) {
+				best = backend;
+				bestTime = time;
+			}
+		}
+
+		// aucun moteur mesur ne convient : le crible segment accepte tout
+		return (best==null) ? SEGMENTED : best;
+	}
+
+	/**
+	 * @return un gnrateur de [1, N] sur le moteur choisi pour les coeurs de la machine
+	 */
+	public PrimeGenerator create(long n) {
+		return select(n, Runtime.getRuntime().availableProcessors()).create(n);
+	}
+
+	/**
+	 * Affiche les mesures (ns par nombre) de chaque moteur
+	 */
+	public void printCalibration() {
+		StringBuilder header = new StringBuilder(String.format("%-15s", "N"));
+		for (int e=MIN_EXPONENT ; e<=MAX_EXPONENT ; e++) {
+			header.append(String.format("%10s", "10^" + e));
+		}
+		System.out.println(header + "   (" + calibrationCores + " coeurs)");
+
+		for (Map.Entry<String, double[]> entry : calibration.entrySet()) {
+			StringBuilder line = new StringBuilder(String.format("%-15s", entry.getKey()));
+			for (double rate : entry.getValue()) {
+				line.append(Double.isNaN(rate) ? String.format("%10s", "-") : String.format("%10.2f", rate));
+			}
+			System.out.println(line);
+		}
+	}
+
+	private static long pow10(int e) {
+		long n = 1;
+		for (int i=0 ; i<e ; i++) {
+			n *= 10;
+		}
+
+		return n;
+	}
+}
@@ -0,0 +1,76 @@
+package algorithms;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongConsumer;
+
+import algorithms.arithmetic.SmallestFactorTable;
+
+/**
+ * Crible linaire (chaque compos n'est ray qu'une fois, par son plus petit facteur) : les nombres premiers
+ * sont ceux que la table des plus petits facteurs de SmallestFactorTable laisse  0.
+ * O(N) oprations, mais un octet par nombre (N <= Integer.MAX_VALUE).
+ */
+public class LinearSieveAlgorithm implements PrimeGenerator {
+
+	private final int N;
+	/** la table des plus petits facteurs de [2, N] */
+	private SmallestFactorTable table;
+	/** le nombre de nombres premiers dans [1, N] */
+	private long count;
+
+	public LinearSieveAlgorithm(long N) {
+		if (N>Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("N trop grand : " + N);
+		}
+
+		this.N = (int) N;
+		this.count = 0;
+	}
+
+	public void run() {
+		Instant start = Instant.now();
+
+		this.core();
+
+		Instant end = Instant.now();
+
+		System.out.println("Temps: " + Duration.between(start, end).toMillis() + " ms");
+		System.out.println("Ensemble = [1, " + N + "]");
+		System.out.println("Nombres premiers : " + count);
+	}
+
+	/**
+	 * L'algorithme : construit la table des plus petits facteurs et compte les premiers
+	 */
+	protected void core() {
+		table = new SmallestFactorTable(Math.max(N, 0));
+		count = (N>=2) ? 1 + table.getOddPrimes().length : 0;
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [1, N], par ordre croissant
+	 */
+	@Override
+	public void generate(LongConsumer action) {
+		if (table==null) {
+			this.core();
+		}
+
+		if (N>=2) {
+			action.accept(2);
+		}
+		for (int p : table.getOddPrimes()) {
+			action.accept(p);
+		}
+	}
+
+	@Override
+	public long getN() {
+		return N;
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,89 @@
+package algorithms;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+
+import algorithms.sieve.ParallelSieve;
+import algorithms.sieve.SegmentedSieve;
+import algorithms.sieve.SieveMetrics;
+
+/**
+ * Version multi-coeurs de SegmentedSieveAlgorithm : [1, N] est dcoup en tranches indpendantes
+ * cribles sur un ForkJoinPool, qui partagent la table des premiers de base jusqu' racine de N.
+ *
+ * Les nombres premiers peuvent aussi tre rcuprs par ordre croissant via generate(),
+ * sans jamais garder l'ensemble des rsultats en mmoire.
+ */
+public class ParallelSieveAlgorithm implements PrimeGenerator {
+
+	private final long N;
+	/** le nombre de threads utiliss */
+	private final int threads;
+	/** le crible parallle */
+	private final ParallelSieve sieve;
+	/** le nombre de nombres premiers dans [1, N] */
+	private long count;
+
+	/**
+	 * Sur le pool commun : aucun thread n'est cr par instance
+	 */
+	public ParallelSieveAlgorithm(long N) {
+		this(N, new ParallelSieve(N));
+	}
+
+	/**
+	 * Sur un pool ddi de THREADS threads
+	 */
+	public ParallelSieveAlgorithm(long N, int threads) {
+		this(N, new ParallelSieve(new SegmentedSieve(N), new ForkJoinPool(threads)));
+	}
+
+	private ParallelSieveAlgorithm(long N, ParallelSieve sieve) {
+
+		this.N = N;
+		this.threads = sieve.getPool().getParallelism();
+		this.sieve = sieve;
+		this.count = 0;
+	}
+
+	public void run() {
+		Instant start = Instant.now();
+
+		this.core();
+
+		Instant end = Instant.now();
+
+		System.out.println("Temps: " + Duration.between(start, end).toMillis() + " ms (" + threads + " threads)");
+		System.out.println("Ensemble = [1, " + N + "]");
+		System.out.println("Nombres premiers : " + count);
+		if (SieveMetrics.isEnabled()) {
+			System.out.println("Mtriques : " + SieveMetrics.report());
+		}
+	}
+
+	/**
+	 * L'algorithme : crible les tranches de [1, N] en parallle et additionne leurs comptes
+	 */
+	protected void core() {
+		count = sieve.count(1, N);
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [1, N], par ordre croissant
+	 */
+	@Override
+	public void generate(LongConsumer action) {
+		sieve.forEach(1, N, action);
+	}
+
+	@Override
+	public long getN() {
+		return N;
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
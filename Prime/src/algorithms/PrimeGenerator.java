@@ -0,0 +1,32 @@
+package algorithms;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Un moteur de gnration des nombres premiers de [1, N], N tant fix  la construction.
+ *
+ * SetShrinkingAlgorithm en est l'implmentation de rfrence ; GeneratorSelector choisit le moteur
+ * le plus rapide pour un N donn.
+ */
+public interface PrimeGenerator {
+
+	/**
+	 * @return la borne N (incluse)
+	 */
+	long getN();
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [1, N], par ordre croissant
+	 */
+	void generate(LongConsumer action);
+
+	/**
+	 * @return le nombre de nombres premiers de [1, N]
+	 */
+	default long count() {
+		long[] count = {0};
+		generate((long p) -> count[0]++);
+
+		return count[0];
+	}
+}
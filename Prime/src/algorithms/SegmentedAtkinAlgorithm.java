@@ -0,0 +1,64 @@
+package algorithms;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongConsumer;
+
+import algorithms.sieve.AtkinSieve;
+
+/**
+ * Pendant de SegmentedSieveAlgorithm sur le crible d'Atkin segment (AtkinSieve) : mme intervalle,
+ * mme codage des segments, pour comparer les deux cribles sur une mme machine.
+ * La mmoire est proportionnelle  racine de N.
+ */
+public class SegmentedAtkinAlgorithm implements PrimeGenerator {
+
+	private final long N;
+	/** le crible d'Atkin segment */
+	private final AtkinSieve sieve;
+	/** le nombre de nombres premiers dans [1, N] */
+	private long count;
+
+	public SegmentedAtkinAlgorithm(long N) {
+
+		this.N = N;
+		this.sieve = new AtkinSieve(N);
+		this.count = 0;
+	}
+
+	public void run() {
+		Instant start = Instant.now();
+
+		this.core();
+
+		Instant end = Instant.now();
+
+		System.out.println("Temps: " + Duration.between(start, end).toMillis() + " ms");
+		System.out.println("Ensemble = [1, " + N + "]");
+		System.out.println("Nombres premiers : " + count);
+	}
+
+	/**
+	 * L'algorithme : numre les formes quadratiques segment par segment et compte les bits restants
+	 */
+	protected void core() {
+		count = sieve.count(1, N);
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [1, N], par ordre croissant
+	 */
+	@Override
+	public void generate(LongConsumer action) {
+		sieve.forEach(1, N, action);
+	}
+
+	@Override
+	public long getN() {
+		return N;
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
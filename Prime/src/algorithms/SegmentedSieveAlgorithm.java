@@ -0,0 +1,72 @@
+package algorithms;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongConsumer;
+
+import algorithms.sieve.SegmentedSieve;
+import algorithms.sieve.SieveMetrics;
+
+/**
+ * Mme objectif que SetShrinkingAlgorithm (les nombres premiers de [1, N]), mais sans jamais
+ * stocker l'ensemble : un crible d'Eratosthne segment sur une roue modulo 30, o chaque bit
+ * reprsente un nombre premier avec 30 et o chaque segment tient dans le cache L2.
+ *
+ * La mmoire est proportionnelle  racine de N, ce qui permet d'aller jusqu' 10^10 - 10^12.
+ * Seul le nombre de nombres premiers est conserv ; SetShrinkingAlgorithm compte aussi 1 parmi
+ * ses "premiers", il faut donc retirer 1  son total pour comparer.
+ */
+public class SegmentedSieveAlgorithm implements PrimeGenerator {
+
+	private final long N;
+	/** le crible segment */
+	private final SegmentedSieve sieve;
+	/** le nombre de nombres premiers dans [1, N] */
+	private long count;
+
+	public SegmentedSieveAlgorithm(long N) {
+
+		this.N = N;
+		this.sieve = new SegmentedSieve(N);
+		this.count = 0;
+	}
+
+	public void run() {
+		Instant start = Instant.now();
+
+		this.core();
+
+		Instant end = Instant.now();
+
+		System.out.println("Temps: " + Duration.between(start, end).toMillis() + " ms");
+		System.out.println("Ensemble = [1, " + N + "]");
+		System.out.println("Nombres premiers : " + count);
+		if (SieveMetrics.isEnabled()) {
+			System.out.println("Mtriques : " + SieveMetrics.report());
+		}
+	}
+
+	/**
+	 * L'algorithme : crible successivement chaque segment de [1, N] et compte les bits restants
+	 */
+	protected void core() {
+		count = sieve.count(1, N);
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [1, N], par ordre croissant
+	 */
+	@Override
+	public void generate(LongConsumer action) {
+		sieve.forEach(1, N, action);
+	}
+
+	@Override
+	public long getN() {
+		return N;
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
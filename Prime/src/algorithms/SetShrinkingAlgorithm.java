@@ -4,6 +4,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongConsumer;
+
+import algorithms.sieve.SieveMetrics;
 
 /**
  * Cet algorithme permet de rcuprer tous les nombres premiers dans un ensemble donn.
@@ -16,11 +19,14 @@ import java.util.List;
  * 			b/ ajout de I dans P
  * 			c/ retrait, de la liste L, des lments multiples de I
  * 		3/ retourner P
+ *
+ * Chaque passage de filtre est mesur par SieveMetrics comme un segment (4 octets par lment parcouru)
+ * quand elle est active ou qu'un enregistrement JFR le demande.
  * 
  * @author Alan
  *
  */
-public class SetShrinkingAlgorithm {
+public class SetShrinkingAlgorithm implements PrimeGenerator {
 	
 	private final int N;
 	/** l'ensemble contenant les nombres */
@@ -29,6 +35,8 @@ public class SetShrinkingAlgorithm {
 	private List<Integer> primes = new ArrayList<>();
 	/** l'volution de la taille de SET au fil des itrations */
 	private List<Integer> sizes = new ArrayList<>();
+	/** TRUE une fois core() excut */
+	private boolean done = false;
 
 	public SetShrinkingAlgorithm(int N) {
 		
@@ -63,6 +71,9 @@ public class SetShrinkingAlgorithm {
 		System.out.println("Ensemble = [1, " + N + "]");
 		System.out.println("Nombres premiers (" + primes.size() + ") : " + primes.toString());
 		System.out.println("Evolution de la taille (" + sizes.size() + ") : " + sizes.toString());
+		if (SieveMetrics.isEnabled()) {
+			System.out.println("Mtriques : " + SieveMetrics.report());
+		}
 	}
 	
 	/**
@@ -72,12 +83,21 @@ public class SetShrinkingAlgorithm {
 		while (set.size()>0) {
 			int modulo = set.get(0);
 			int oldSize = set.size()+1;
+			long start = SieveMetrics.start();
 			
 			set = this.filter(set, modulo);
 			
 			int newSize = set.size()+1;
+			boolean last = oldSize-newSize==1;
+			
+			if (start!=0) {
+				// MODULO est premier, et au dernier passage tout ce qui reste dans SET l'est aussi
+				SieveMetrics.segment(modulo, 4*(oldSize-1), System.nanoTime()-start, last ? 1+set.size() : 1);
+			}
 			
-			if (oldSize-newSize==1) {
+			if (last) {
+				// MODULO n'a plus d'autre multiple que lui-mme : il a t retir de SET, mais il est premier
+				primes.add(modulo);
 				break;
 			}
 			else {
@@ -87,6 +107,28 @@ public class SetShrinkingAlgorithm {
 		}
 		
 		primes.addAll(set);
+		done = true;
+	}
+	
+	@Override
+	public long getN() {
+		return N;
+	}
+	
+	/**
+	 * Applique ACTION  chaque nombre premier de [2, N] (1 n'est pas rendu), en excutant core() si besoin
+	 */
+	@Override
+	public void generate(LongConsumer action) {
+		if ( ! done) {
+			this.core();
+		}
+		
+		for (int p : primes) {
+			if (p>=2 && p<=N) {
+				action.accept(p);
+			}
+		}
 	}
 	
 	/**
@@ -0,0 +1,147 @@
+package algorithms.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Les carts entre nombres premiers conscutifs : l'histogramme des carts et les carts maximaux
+ * (les carts records, plus grands que tous ceux qui les prcdent).
+ *
+ * Fusion : l'cart qui chevauche la frontire (entre le dernier premier de gauche et le premier de droite)
+ * est ajout, puis seuls les records de droite qui battent tout ce qui prcde restent des records.
+ */
+public class GapAnalyzer implements PrimeAnalyzer<GapAnalyzer.Gaps> {
+
+	public GapAnalyzer() {
+
+	}
+
+	@Override
+	public Gaps newState() {
+		return new Gaps();
+	}
+
+	@Override
+	public void accept(Gaps state, long p) {
+		if (state.last<0) {
+			state.first = p;
+		}
+		else {
+			state.add(state.last, (int) (p-state.last));
+		}
+
+		state.last = p;
+		state.primes++;
+	}
+
+	@Override
+	public Gaps merge(Gaps left, Gaps right) {
+		if (left.last<0) {
+			return right;
+		}
+		if (right.last<0) {
+			return left;
+		}
+
+		left.add(left.last, (int) (right.first-left.last));
+
+		if (right.histogram.length>left.histogram.length) {
+			left.histogram = Arrays.copyOf(left.histogram, right.histogram.length);
+		}
+		for (int g=0 ; g<right.histogram.length ; g++) {
+			left.histogram[g] += right.histogram[g];
+		}
+
+		for (Gap record : right.records) {
+			if (record.gap>left.maxGap) {
+				left.records.add(record);
+				left.maxGap = record.gap;
+			}
+		}
+
+		left.last = right.last;
+		left.primes += right.primes;
+
+		return left;
+	}
+
+	/**
+	 * Un cart de GAP aprs le nombre premier P
+	 */
+	public static class Gap {
+
+		public final long p;
+		public final int gap;
+
+		private Gap(long p, int gap) {
+			this.p = p;
+			this.gap = gap;
+		}
+
+		@Override
+		public String toString() {
+			return gap + " aprs " + p;
+		}
+	}
+
+	public static class Gaps {
+
+		private long first = -1;
+		private long last = -1;
+		private long primes;
+		/** HISTOGRAM[g] : le nombre d'carts valant g */
+		private long[] histogram = new long[64];
+		private final List<Gap> records = new ArrayList<>();
+		private int maxGap;
+
+		private void add(long p, int gap) {
+			if (gap>=histogram.length) {
+				histogram = Arrays.copyOf(histogram, Math.max(2*histogram.length, gap+1));
+			}
+			histogram[gap]++;
+
+			if (gap>maxGap) {
+				records.add(new Gap(p, gap));
+				maxGap = gap;
+			}
+		}
+
+		/** @return le nombre de nombres premiers vus */
+		public long getPrimes() {
+			return primes;
+		}
+
+		/** @return le plus grand cart */
+		public int getMaxGap() {
+			return maxGap;
+		}
+
+		/** @return les carts records, par ordre croissant */
+		public List<Gap> getRecords() {
+			return new ArrayList<>(records);
+		}
+
+		/** @return le nombre d'carts valant GAP */
+		public long count(int gap) {
+			return (gap>=0 && gap<histogram.length) ? histogram[gap] : 0;
+		}
+
+		/** @return l'histogramme des carts : la case g contient le nombre d'carts valant g */
+		public long[] getHistogram() {
+			return Arrays.copyOf(histogram, maxGap+1);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder histogram = new StringBuilder();
+			for (int g=1 ; g<=maxGap ; g++) {
+				if (count(g)>0) {
+					histogram.append(histogram.length()==0 ? "" : ", ").append(g).append(": ").append(count(g));
+				}
+			}
+
+			return "Ecarts : max = " + maxGap + ", records = " + records + ", histogramme = {" + histogram + "}";
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package algorithms.analysis;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import algorithms.sieve.ParallelSieve;
+import algorithms.sieve.SegmentedSieve;
+
+/**
+ * Passe unique sur les nombres premiers d'un intervalle, partage par plusieurs PrimeAnalyzer.
+ *
+ * Le ParallelSieve crible les tranches en parallle ; chaque tranche est parcourue une seule fois et chaque
+ * nombre premier est donn  tous les analyseurs, dans des tats propres  la tranche. Les tats sont ensuite
+ * fusionns dans l'ordre sur le thread appelant. La liste des nombres premiers n'est jamais construite :
+ * la mmoire ne dpend que de la taille des tranches et des tats.
+ */
+public class PrimeAnalysis {
+
+	private final ParallelSieve sieve;
+
+	public PrimeAnalysis(long limit) {
+		this(new ParallelSieve(limit));
+	}
+
+	public PrimeAnalysis(ParallelSieve sieve) {
+		this.sieve = sieve;
+	}
+
+	/**
+	 * @return les rsultats de chaque analyseur sur les nombres premiers de [FROM, TO]
+	 */
+	public Results run(long from, long to, PrimeAnalyzer<?>... analyzers) {
+		Object[] total = newStates(analyzers);
+
+		// 2, 3 et 5 ne sont pas dans le crible
+		for (int p : new int[]{2, 3, 5}) {
+			if (p>=from && p<=to) {
+				accept(analyzers, total, p);
+			}
+		}
+
+		sieve.process(from, to, (SegmentedSieve.Segment segment) -> {
+			Object[] states = newStates(analyzers);
+			while (segment.next()) {
+				segment.forEach(p -> accept(analyzers, states, p));
+			}
+			return states;
+		}, (Object[] states) -> {
+			for (int i=0 ; i<analyzers.length ; i++) {
+				total[i] = merge(analyzers[i], total[i], states[i]);
+			}
+		});
+
+		return new Results(analyzers, total);
+	}
+
+	private static Object[] newStates(PrimeAnalyzer<?>[] analyzers) {
+		Object[] states = new Object[analyzers.length];
+		for (int i=0 ; i<analyzers.length ; i++) {
+			states[i] = analyzers[i].newState();
+		}
+
+		return states;
+	}
+
+	private static void accept(PrimeAnalyzer<?>[] analyzers, Object[] states, long p) {
+		for (int i=0 ; i<analyzers.length ; i++) {
+			accept(analyzers[i], states[i], p);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <S> void accept(PrimeAnalyzer<S> analyzer, Object state, long p) {
+		analyzer.accept((S) state, p);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <S> S merge(PrimeAnalyzer<S> analyzer, Object left, Object right) {
+		return analyzer.merge((S) left, (S) right);
+	}
+
+	/**
+	 * Les tats finaux, retrouvs par leur analyseur
+	 */
+	public static class Results {
+
+		private final PrimeAnalyzer<?>[] analyzers;
+		private final Map<PrimeAnalyzer<?>, Object> states = new IdentityHashMap<>();
+
+		private Results(PrimeAnalyzer<?>[] analyzers, Object[] states) {
+			this.analyzers = analyzers;
+			for (int i=0 ; i<analyzers.length ; i++) {
+				this.states.put(analyzers[i], states[i]);
+			}
+		}
+
+		/**
+		 * @return le rsultat de ANALYZER
+		 */
+		@SuppressWarnings("unchecked")
+		public <S> S get(PrimeAnalyzer<S> analyzer) {
+			return (S) states.get(analyzer);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder report = new StringBuilder();
+			for (PrimeAnalyzer<?> analyzer : analyzers) {
+				report.append(states.get(analyzer)).append('\n');
+			}
+
+			return report.toString();
+		}
+	}
+}
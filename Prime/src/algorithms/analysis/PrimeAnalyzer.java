@@ -0,0 +1,29 @@
+package algorithms.analysis;
+
+/**
+ * Une statistique sur les nombres premiers, calcule en une seule passe par PrimeAnalysis.
+ *
+ * Chaque tranche de l'intervalle est analyse sparment (en parallle) dans son propre tat, puis les tats
+ * sont fusionns dans l'ordre croissant des tranches : MERGE doit tre associative, et tenir compte
+ * de ce qui chevauche la frontire entre deux tranches (un cart, un k-uplet...).
+ *
+ * @param <S> l'tat d'une tranche, qui est aussi le rsultat final
+ */
+public interface PrimeAnalyzer<S> {
+
+	/**
+	 * @return l'tat d'une tranche qui n'a encore vu aucun nombre premier
+	 */
+	public S newState();
+
+	/**
+	 * Ajoute  STATE le nombre premier P, plus grand que tous ceux dj vus par STATE
+	 */
+	public void accept(S state, long p);
+
+	/**
+	 * @return l'tat de LEFT suivi de RIGHT, RIGHT portant sur les nombres qui suivent immdiatement ceux de LEFT
+	 * (LEFT et RIGHT peuvent tre modifis, l'un d'eux rendu)
+	 */
+	public S merge(S left, S right);
+}
@@ -0,0 +1,65 @@
+package algorithms.analysis;
+
+/**
+ * Le nombre de nombres premiers dans chaque classe de rsidus modulo Q (la course des nombres premiers).
+ * La fusion est une simple somme.
+ */
+public class ResidueAnalyzer implements PrimeAnalyzer<ResidueAnalyzer.Residues> {
+
+	private final int q;
+
+	public ResidueAnalyzer(int q) {
+		if (q<1) {
+			throw new IllegalArgumentException("q < 1 : " + q);
+		}
+
+		this.q = q;
+	}
+
+	@Override
+	public Residues newState() {
+		return new Residues();
+	}
+
+	@Override
+	public void accept(Residues state, long p) {
+		state.counts[(int) (p%q)]++;
+	}
+
+	@Override
+	public Residues merge(Residues left, Residues right) {
+		for (int r=0 ; r<q ; r++) {
+			left.counts[r] += right.counts[r];
+		}
+
+		return left;
+	}
+
+	public class Residues {
+
+		/** COUNTS[r] : le nombre de nombres premiers congrus  r modulo Q */
+		private final long[] counts = new long[q];
+
+		/** @return le nombre de nombres premiers congrus  R modulo Q */
+		public long count(int r) {
+			return counts[((r%q)+q)%q];
+		}
+
+		/** @return les nombres de nombres premiers de chaque classe, de 0  Q-1 */
+		public long[] getCounts() {
+			return counts.clone();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder classes = new StringBuilder();
+			for (int r=0 ; r<q ; r++) {
+				if (counts[r]>0) {
+					classes.append(classes.length()==0 ? "" : ", ").append(r).append(": ").append(counts[r]);
+				}
+			}
+
+			return "Rsidus modulo " + q + " : {" + classes + "}";
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package algorithms.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Le nombre de k-uplets de nombres premiers d'un motif donn : les p tels que p + o soit premier
+ * pour chaque dcalage o du motif (par exemple {0, 2} pour les premiers jumeaux, {0, 2, 6} et {0, 4, 6} pour les triplets).
+ *
+ * L'tat garde une fentre de 64 bits sur les derniers nombres (bit k : le dernier premier vu moins k est premier) :
+ * un k-uplet se termine en P quand les bits du motif sont tous  1. Pour la fusion, chaque tranche garde aussi
+ * ses premiers nombres premiers, ceux  moins d'un diamtre de son dbut : rejous dans la fentre de gauche,
+ * ils compltent les k-uplets commencs  gauche.
+ */
+public class TupleAnalyzer implements PrimeAnalyzer<TupleAnalyzer.Tuples> {
+
+	private final int[] pattern;
+	/** le plus grand dcalage du motif */
+	private final int diameter;
+	/** les bits de la fentre qui doivent tre  1 quand un k-uplet se termine au dernier premier vu */
+	private final long mask;
+
+	/**
+	 * @param pattern les dcalages du motif, croissants,  partir de 0 (diamtre infrieur  64)
+	 */
+	public TupleAnalyzer(int... pattern) {
+		if (pattern.length==0 || pattern[0]!=0) {
+			throw new IllegalArgumentException("le motif doit commencer par 0 : " + Arrays.toString(pattern));
+		}
+		for (int i=1 ; i<pattern.length ; i++) {
+			if (pattern[i]<=pattern[i-1]) {
+				throw new IllegalArgumentException("motif non croissant : " + Arrays.toString(pattern));
+			}
+		}
+
+		this.pattern = pattern.clone();
+		this.diameter = pattern[pattern.length-1];
+		if (diameter>=64) {
+			throw new IllegalArgumentException("diamtre >= 64 : " + diameter);
+		}
+
+		long mask = 0;
+		for (int o : pattern) {
+			mask |= 1L << (diameter-o);
+		}
+		this.mask = mask;
+	}
+
+	/**
+	 * @return l'analyseur des premiers jumeaux (p, p+2)
+	 */
+	public static TupleAnalyzer twins() {
+		return new TupleAnalyzer(0, 2);
+	}
+
+	@Override
+	public Tuples newState() {
+		return new Tuples(diameter/2 + 2);
+	}
+
+	@Override
+	public void accept(Tuples state, long p) {
+		if (state.last<0) {
+			state.first = p;
+			state.window = 1;
+		}
+		else {
+			state.window = shift(state.window, p-state.last);
+		}
+		state.last = p;
+
+		if (p<state.first+diameter) {
+			state.head[state.headSize++] = p;
+		}
+
+		if ((state.window & mask)==mask) {
+			state.count++;
+		}
+	}
+
+	@Override
+	public Tuples merge(Tuples left, Tuples right) {
+		if (left.last<0) {
+			return right;
+		}
+		if (right.last<0) {
+			return left;
+		}
+
+		// les k-uplets commencs  gauche et termins dans la tte de droite
+		long window = left.window;
+		long last = left.last;
+		for (int i=0 ; i<right.headSize ; i++) {
+			long p = right.head[i];
+			window = shift(window, p-last);
+			last = p;
+
+			if (p-diameter<right.first && (window & mask)==mask) {
+				left.count++;
+			}
+		}
+
+		// la tte de gauche s'tend sur la droite si la tranche de gauche est plus courte qu'un diamtre
+		for (int i=0 ; i<right.headSize && right.head[i]<left.first+diameter ; i++) {
+			left.head[left.headSize++] = right.head[i];
+		}
+
+		// si toute la droite tient dans sa tte, la fentre rejoue est la bonne ; sinon celle de droite suffit
+		left.window = (right.last<right.first+diameter) ? window : right.window;
+		left.last = right.last;
+		left.count += right.count;
+
+		return left;
+	}
+
+	/**
+	 * @return la fentre WINDOW dcale de GAP nombres, avec le bit du nouveau premier
+	 */
+	private static long shift(long window, long gap) {
+		return (gap<64) ? (window << gap) | 1 : 1;
+	}
+
+	public class Tuples {
+
+		private long first = -1;
+		private long last = -1;
+		private long window;
+		private long count;
+		/** les nombres premiers de [FIRST, FIRST + diamtre[ */
+		private final long[] head;
+		private int headSize;
+
+		private Tuples(int headCapacity) {
+			this.head = new long[headCapacity];
+		}
+
+		/** @return le nombre de k-uplets */
+		public long getCount() {
+			return count;
+		}
+
+		@Override
+		public String toString() {
+			return "k-uplets " + Arrays.toString(pattern) + " : " + count;
+		}
+	}
+}
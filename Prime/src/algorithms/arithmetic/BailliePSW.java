@@ -0,0 +1,265 @@
+package algorithms.arithmetic;
+
+import java.math.BigInteger;
+
+/**
+ * Test de primalit de Baillie-PSW pour les BigInteger :
+ * 		1/ filtrage par les petits premiers (un seul PGCD avec leur produit)
+ * 		2/ test de Miller-Rabin fort en base 2
+ * 		3/ test de Lucas fort, paramtres choisis par la mthode A de Selfridge
+ *
+ * Aucun contre-exemple n'est connu ; sous 2^64 le test est mme prouv exact.
+ * Les entiers qui tiennent sur 63 bits sont dlgus  MillerRabin (dterministe).
+ */
+public class BailliePSW {
+
+	/** borne des petits premiers du filtrage */
+	private static final int SMALL_PRIMES_LIMIT = 1000;
+	/** le produit des premiers impairs infrieurs  SMALL_PRIMES_LIMIT */
+	private static final BigInteger SMALL_PRIMES_PRODUCT;
+
+	private static final BigInteger TWO = BigInteger.valueOf(2);
+
+	static {
+		BigInteger product = BigInteger.ONE;
+		for (int p=3 ; p<SMALL_PRIMES_LIMIT ; p+=2) {
+			if (MillerRabin.isPrime(p)) {
+				product = product.multiply(BigInteger.valueOf(p));
+			}
+		}
+		SMALL_PRIMES_PRODUCT = product;
+	}
+
+	public BailliePSW() {
+
+	}
+
+	/**
+	 * @return TRUE si le nombre N est (trs probablement) premier
+	 */
+	public static boolean isPrime(BigInteger n) {
+		if (n.signum()<=0) {
+			return false;
+		}
+
+		if (n.bitLength()<63) {
+			return MillerRabin.isPrime(n.longValue());
+		}
+
+		if ( ! n.testBit(0)) {
+			return false;
+		}
+
+		// N > 2^62 : un facteur commun avec le produit est forcment un vrai diviseur
+		if ( ! n.gcd(SMALL_PRIMES_PRODUCT).equals(BigInteger.ONE)) {
+			return false;
+		}
+
+		return isStrongProbablePrime(n, TWO) && isStrongLucasProbablePrime(n);
+	}
+
+	/**
+	 * @return TRUE si N (impair) est un pseudo-premier fort en base A
+	 */
+	public static boolean isStrongProbablePrime(BigInteger n, BigInteger a) {
+		BigInteger nMinusOne = n.subtract(BigInteger.ONE);
+		int s = nMinusOne.getLowestSetBit();
+		BigInteger d = nMinusOne.shiftRight(s);
+
+		BigInteger x = a.modPow(d, n);
+		if (x.equals(BigInteger.ONE) || x.equals(nMinusOne)) {
+			return true;
+		}
+
+		for (int r=1 ; r<s ; r++) {
+			x = x.multiply(x).mod(n);
+			if (x.equals(nMinusOne)) {
+				return true;
+			}
+			if (x.equals(BigInteger.ONE)) {
+				return false;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Test de Lucas fort avec P = 1 et Q = (1-D)/4, D tant le premier de 5, -7, 9, -11, ...
+	 * tel que le symbole de Jacobi (D/N) vaille -1
+	 * @return TRUE si N (impair, sans petit facteur) est un pseudo-premier de Lucas fort
+	 */
+	public static boolean isStrongLucasProbablePrime(BigInteger n) {
+		// un carr parfait n'admet aucun D convenable
+		if (isPerfectSquare(n)) {
+			return false;
+		}
+
+		long D = 5;
+		while (true) {
+			int j = jacobi(D, n);
+			if (j==-1) {
+				break;
+			}
+			// D divise N (N n'est pas premier, puisque plus grand que D)
+			if (j==0) {
+				return false;
+			}
+			D = (D>0) ? -(D+2) : -(D-2);
+		}
+
+		long P = 1;
+		long Q = (1-D)/4;
+
+		// N+1 = d * 2^s
+		BigInteger nPlusOne = n.add(BigInteger.ONE);
+		int s = nPlusOne.getLowestSetBit();
+		BigInteger d = nPlusOne.shiftRight(s);
+
+		BigInteger bigD = BigInteger.valueOf(D);
+		BigInteger bigQ = BigInteger.valueOf(Q).mod(n);
+		BigInteger U = BigInteger.ONE;
+		BigInteger V = BigInteger.valueOf(P);
+		BigInteger Qk = bigQ;
+
+		// calcul de U(d) et V(d) en parcourant les bits de d (le bit de poids fort correspond  U(1), V(1))
+		for (int i=d.bitLength()-2 ; i>=0 ; i--) {
+			// doublement : U(2k) = U(k)V(k), V(2k) = V(k)^2 - 2Q^k
+			U = U.multiply(V).mod(n);
+			V = V.multiply(V).subtract(Qk.shiftLeft(1)).mod(n);
+			Qk = Qk.multiply(Qk).mod(n);
+
+			if (d.testBit(i)) {
+				// incrment : U(k+1) = (P*U(k) + V(k))/2, V(k+1) = (D*U(k) + P*V(k))/2
+				BigInteger u = half(U.add(V), n);
+				BigInteger v = half(bigD.multiply(U).add(V).mod(n), n);
+				U = u;
+				V = v;
+				Qk = Qk.multiply(bigQ).mod(n);
+			}
+		}
+
+		if (U.signum()==0 || V.signum()==0) {
+			return true;
+		}
+
+		for (int r=1 ; r<s ; r++) {
+			V = V.multiply(V).subtract(Qk.shiftLeft(1)).mod(n);
+			if (V.signum()==0) {
+				return true;
+			}
+			Qk = Qk.multiply(Qk).mod(n);
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return X/2 mod N (N impair, 0 <= X < 2N)
+	 */
+	private static BigInteger half(BigInteger x, BigInteger n) {
+		if (x.testBit(0)) {
+			x = x.add(n);
+		}
+
+		return x.shiftRight(1).mod(n);
+	}
+
+	/**
+	 * @return le symbole de Jacobi (A/N), N impair et positif
+	 */
+	public static int jacobi(long a, BigInteger n) {
+		int result = 1;
+
+		if (a<0) {
+			a = -a;
+			// (-1/N) = -1 si N = 3 mod 4
+			if (n.testBit(1)) {
+				result = -result;
+			}
+		}
+
+		while (a!=0 && (a&1)==0) {
+			a >>= 1;
+			// (2/N) = -1 si N = 3 ou 5 mod 8
+			int r = n.intValue() & 7;
+			if (r==3 || r==5) {
+				result = -result;
+			}
+		}
+
+		if (a==0) {
+			return n.equals(BigInteger.ONE) ? result : 0;
+		}
+		if (a==1) {
+			return result;
+		}
+
+		// rciprocit quadratique : A et N impairs
+		if ((a&3)==3 && n.testBit(1)) {
+			result = -result;
+		}
+
+		return result * jacobi(n.mod(BigInteger.valueOf(a)).longValue(), a);
+	}
+
+	/**
+	 * @return le symbole de Jacobi (A/N), 0 <= A, N impair et positif
+	 */
+	public static int jacobi(long a, long n) {
+		int result = 1;
+		a %= n;
+
+		while (a!=0) {
+			while ((a&1)==0) {
+				a >>= 1;
+				long r = n&7;
+				if (r==3 || r==5) {
+					result = -result;
+				}
+			}
+
+			long t = a;
+			a = n;
+			n = t;
+			if ((a&3)==3 && (n&3)==3) {
+				result = -result;
+			}
+			a %= n;
+		}
+
+		return (n==1) ? result : 0;
+	}
+
+	/**
+	 * @return TRUE si N est un carr parfait
+	 */
+	public static boolean isPerfectSquare(BigInteger n) {
+		// un carr est un rsidu quadratique modulo 64 (12 rsidus sur 64)
+		int low = n.intValue() & 63;
+		if (((0x0202021202030213L >>> low) & 1)==0) {
+			return false;
+		}
+
+		BigInteger r = sqrt(n);
+		return r.multiply(r).equals(n);
+	}
+
+	/**
+	 * @return la partie entire de la racine carre de N >= 0 (mthode de Newton)
+	 */
+	public static BigInteger sqrt(BigInteger n) {
+		if (n.signum()==0) {
+			return BigInteger.ZERO;
+		}
+
+		BigInteger x = BigInteger.ONE.shiftLeft((n.bitLength()+1)/2);
+		while (true) {
+			BigInteger y = x.add(n.divide(x)).shiftRight(1);
+			if (y.compareTo(x)>=0) {
+				return x;
+			}
+			x = y;
+		}
+	}
+}
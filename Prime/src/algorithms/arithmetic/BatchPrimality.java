@@ -0,0 +1,177 @@
+package algorithms.arithmetic;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Test de primalit par lots : pour un tableau de candidats, un filtrage commun par les premiers impairs
+ * infrieurs  SCREEN_LIMIT, puis Miller-Rabin (sans sa propre division par essais) sur les seuls survivants.
+ *
+ * Le filtrage n'a ni division ni branchement : pour P impair, P divise n si et seulement si
+ * n * P^-1 mod 2^64 <= (2^64-1) / P (comparaison non signe). Il est fait par blocs de BLOCK candidats,
+ * premier par premier, en boucles courtes que le JIT droule (et qu'il peut vectoriser quand la machine
+ * a une multiplication 64 bits vectorielle). Les grands lots sont dcoups en tranches traites
+ * en parallle sur un ForkJoinPool.
+ */
+public class BatchPrimality {
+
+	/** borne des premiers du filtrage */
+	private static final int SCREEN_LIMIT = 256;
+	/** nombre de candidats filtrs ensemble (les drapeaux du bloc restent en cache L1) */
+	private static final int BLOCK = 1 << 10;
+	/** en dessous de cette taille de lot, tout est fait sur le thread appelant */
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+	/** nombre de tranches par thread du pool (le cot de Miller-Rabin varie d'une tranche  l'autre) */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/** les premiers impairs infrieurs  SCREEN_LIMIT */
+	private static final long[] PRIMES;
+	/** P^-1 mod 2^64 */
+	private static final long[] INVERSES;
+	/** (2^64-1) / P, dcal de Long.MIN_VALUE pour que la comparaison signe vaille la comparaison non signe */
+	private static final long[] LIMITS;
+	/** le plus grand premier du filtrage */
+	private static final long LAST;
+	/** un survivant infrieur  LAST^2 est premier */
+	private static final long SQUARE;
+	/** les premiers jusqu' LAST, pour les candidats que le filtrage ne tranche pas */
+	private static final boolean[] SMALL;
+
+	static {
+		List<Long> primes = new ArrayList<>();
+		for (int p=3 ; p<SCREEN_LIMIT ; p+=2) {
+			if (MillerRabin.isPrime(p)) {
+				primes.add((long) p);
+			}
+		}
+
+		PRIMES = new long[primes.size()];
+		INVERSES = new long[PRIMES.length];
+		LIMITS = new long[PRIMES.length];
+		for (int k=0 ; k<PRIMES.length ; k++) {
+			long p = primes.get(k);
+			PRIMES[k] = p;
+			INVERSES[k] = inverse(p);
+			LIMITS[k] = Long.divideUnsigned(-1L, p) ^ Long.MIN_VALUE;
+		}
+
+		LAST = PRIMES[PRIMES.length-1];
+		SQUARE = LAST*LAST;
+
+		SMALL = new boolean[(int) LAST+1];
+		SMALL[2] = true;
+		for (long p : PRIMES) {
+			SMALL[(int) p] = true;
+		}
+	}
+
+	private final ForkJoinPool pool;
+
+	public BatchPrimality() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public BatchPrimality(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * OUT[i] = TRUE si IN[i] est premier, pour i de 0  IN.length-1
+	 */
+	public void isPrime(long[] in, boolean[] out) {
+		if (out.length<in.length) {
+			throw new IllegalArgumentException("out.length < in.length : " + out.length + " < " + in.length);
+		}
+
+		int parallelism = pool.getParallelism();
+		if (in.length<PARALLEL_THRESHOLD || parallelism<=1) {
+			screen(in, out, 0, in.length);
+			return;
+		}
+
+		// des tranches multiples de BLOCK : chacune crit sa propre plage de OUT
+		int tasks = TASKS_PER_THREAD*parallelism;
+		int chunk = Math.max(BLOCK, (in.length/tasks + BLOCK-1) / BLOCK * BLOCK);
+		List<ForkJoinTask<?>> inFlight = new ArrayList<>();
+
+		for (int from=0 ; from<in.length ; from+=chunk) {
+			int a = from;
+			int b = Math.min(from+chunk, in.length);
+			inFlight.add(pool.submit(() -> screen(in, out, a, b)));
+		}
+
+		for (ForkJoinTask<?> task : inFlight) {
+			task.join();
+		}
+	}
+
+	/**
+	 * OUT contient, aprs l'appel, exactement les indices i tels que IN[i] est premier
+	 */
+	public void isPrime(long[] in, BitSet out) {
+		boolean[] flags = new boolean[in.length];
+
+		isPrime(in, flags);
+
+		// BitSet n'accepte pas d'critures concurrentes : il est rempli sur le thread appelant
+		out.clear();
+		for (int i=0 ; i<flags.length ; i++) {
+			if (flags[i]) {
+				out.set(i);
+			}
+		}
+	}
+
+	/**
+	 * Traite IN[FROM, TO[ sur le thread courant
+	 */
+	private static void screen(long[] in, boolean[] out, int from, int to) {
+		boolean[] survivor = new boolean[BLOCK];
+
+		for (int low=from ; low<to ; low+=BLOCK) {
+			int size = Math.min(BLOCK, to-low);
+
+			// seuls les impairs au-del de LAST sont filtrs
+			for (int j=0 ; j<size ; j++) {
+				long n = in[low+j];
+				survivor[j] = (n&1)==1 && n>LAST;
+			}
+
+			for (int k=0 ; k<INVERSES.length ; k++) {
+				long inverse = INVERSES[k];
+				long limit = LIMITS[k];
+				for (int j=0 ; j<size ; j++) {
+					survivor[j] &= ((in[low+j]*inverse) ^ Long.MIN_VALUE) > limit;
+				}
+			}
+
+			for (int j=0 ; j<size ; j++) {
+				long n = in[low+j];
+
+				if (survivor[j]) {
+					out[low+j] = n<SQUARE || MillerRabin.passesWitnesses(n);
+				}
+				else {
+					out[low+j] = n>=0 && n<=LAST && SMALL[(int) n];
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return P^-1 mod 2^64 (P impair) par la mthode de Newton : chaque pas double le nombre de bits justes,
+	 * et P est dj son propre inverse modulo 8
+	 */
+	private static long inverse(long p) {
+		long x = p;
+
+		for (int i=0 ; i<5 ; i++) {
+			x *= 2 - p*x;
+		}
+
+		return x;
+	}
+}
@@ -0,0 +1,320 @@
+package algorithms.arithmetic;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache born et partag entre threads des dcompositions en facteurs premiers (celles de PollardRho.factor).
+ *
+ * - jusqu' TABLE_LIMIT, la dcomposition est lue dans une SmallestFactorTable, sans rien stocker
+ * - au-del, les dcompositions sont gardes sous forme de long[], avec des cls long non emballes,
+ *   dans STRIPES segments indpendants : chacun a son verrou, sa table de hachage  adressage ouvert
+ *   et sa liste LRU chane par indices. Un segment plein vince son entre la moins rcemment lue.
+ *
+ * Une dcomposition manquante est calcule hors verrou : deux threads peuvent la calculer en mme temps,
+ * le second la trouve alors dj range.
+ */
+public class FactorizationCache {
+
+	public static final int DEFAULT_TABLE_LIMIT = 1 << 20;
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	/** nombre de segments (puissance de 2) */
+	private static final int STRIPES = 16;
+	/** les bits de poids fort du hachage qui dsignent le segment */
+	private static final int STRIPE_SHIFT = 32 - Integer.numberOfTrailingZeros(STRIPES);
+
+	private static final long[] EMPTY = new long[0];
+
+	private final SmallestFactorTable table;
+	private final Stripe[] stripes;
+
+	private final LongAdder tableHits = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public FactorizationCache() {
+		this(DEFAULT_TABLE_LIMIT, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param tableLimit les entiers jusqu' cette borne sont dcomposs par la table des plus petits facteurs
+	 * @param capacity nombre maximal de dcompositions gardes au-del
+	 */
+	public FactorizationCache(int tableLimit, int capacity) {
+		if (capacity<STRIPES) {
+			throw new IllegalArgumentException("capacity < " + STRIPES + " : " + capacity);
+		}
+
+		this.table = new SmallestFactorTable(tableLimit);
+		this.stripes = new Stripe[STRIPES];
+		for (int i=0 ; i<STRIPES ; i++) {
+			stripes[i] = new Stripe((capacity+STRIPES-1) / STRIPES);
+		}
+	}
+
+	/**
+	 * @return la dcomposition de N en facteurs premiers, par ordre croissant ; vide si N < 2
+	 */
+	public long[] factor(long n) {
+		if (n<2) {
+			return EMPTY;
+		}
+
+		if (n<=table.getLimit()) {
+			tableHits.increment();
+
+			int[] factors = table.factorize((int) n);
+			long[] result = new long[factors.length];
+			for (int i=0 ; i<factors.length ; i++) {
+				result[i] = factors[i];
+			}
+			return result;
+		}
+
+		int hash = hash(n);
+		Stripe stripe = stripes[hash>>>STRIPE_SHIFT];
+
+		long[] factors = stripe.get(n, hash);
+		if (factors!=null) {
+			hits.increment();
+			return factors.clone();
+		}
+
+		misses.increment();
+		factors = PollardRho.factor(n);
+		if (stripe.put(n, hash, factors)) {
+			evictions.increment();
+		}
+
+		return factors.clone();
+	}
+
+	/** @return le nombre de dcompositions lues dans la table des plus petits facteurs */
+	public long getTableHits() {
+		return tableHits.sum();
+	}
+
+	/** @return le nombre de dcompositions trouves dans le cache */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** @return le nombre de dcompositions calcules faute d'tre dans le cache */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** @return le nombre d'entres vinces */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/** @return le nombre de dcompositions actuellement gardes */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			size += stripe.size();
+		}
+
+		return size;
+	}
+
+	public void clear() {
+		for (Stripe stripe : stripes) {
+			stripe.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "table: " + getTableHits() + ", hits: " + getHits() + ", misses: " + getMisses()
+			+ ", evictions: " + getEvictions() + ", size: " + size();
+	}
+
+	/**
+	 * @return un mlange des bits de KEY (finaliseur de MurmurHash3) : les bits de poids fort choisissent le segment,
+	 * ceux de poids faible la case
+	 */
+	private static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xFF51AFD7ED558CCDL;
+		key ^= key >>> 33;
+		key *= 0xC4CEB9FE1A85EC53L;
+		key ^= key >>> 33;
+
+		return (int) key;
+	}
+
+	/**
+	 * Un segment : les entres sont des indices dans KEYS / VALUES, chanes de la plus rcente (HEAD)
+	 *  la plus ancienne (TAIL) ; SLOTS est la table  adressage ouvert (sondage linaire), qui contient entre+1
+	 * (0 pour une case vide)
+	 */
+	private static final class Stripe {
+
+		private final int capacity;
+		private final long[] keys;
+		private final long[][] values;
+		private final int[] previous;
+		private final int[] next;
+		private final int[] slots;
+		private final int mask;
+		private int size;
+		private int head = -1;
+		private int tail = -1;
+
+		Stripe(int capacity) {
+			this.capacity = capacity;
+			this.keys = new long[capacity];
+			this.values = new long[capacity][];
+			this.previous = new int[capacity];
+			this.next = new int[capacity];
+			// au plus  moiti pleine
+			this.slots = new int[Integer.highestOneBit(capacity) << 2];
+			this.mask = slots.length-1;
+		}
+
+		synchronized long[] get(long key, int hash) {
+			int slot = find(key, hash);
+			if (slot<0) {
+				return null;
+			}
+
+			int entry = slots[slot]-1;
+			moveToHead(entry);
+
+			return values[entry];
+		}
+
+		/**
+		 * @return TRUE si une entre a t vince pour faire de la place
+		 */
+		synchronized boolean put(long key, int hash, long[] value) {
+			int slot = find(key, hash);
+			if (slot>=0) {
+				int entry = slots[slot]-1;
+				values[entry] = value;
+				moveToHead(entry);
+				return false;
+			}
+
+			boolean evicted = false;
+			int entry;
+			if (size<capacity) {
+				entry = size++;
+			}
+			else {
+				// la plus ancienne entre est rutilise
+				entry = tail;
+				remove(find(keys[entry], hash(keys[entry])));
+				unlink(entry);
+				evicted = true;
+			}
+
+			keys[entry] = key;
+			values[entry] = value;
+
+			slot = hash & mask;
+			while (slots[slot]!=0) {
+				slot = (slot+1) & mask;
+			}
+			slots[slot] = entry+1;
+
+			linkAtHead(entry);
+
+			return evicted;
+		}
+
+		synchronized int size() {
+			return size;
+		}
+
+		synchronized void clear() {
+			Arrays.fill(slots, 0);
+			Arrays.fill(values, null);
+			size = 0;
+			head = -1;
+			tail = -1;
+		}
+
+		/**
+		 * @return la case de KEY, -1 si KEY est absente
+		 */
+		private int find(long key, int hash) {
+			int slot = hash & mask;
+
+			while (slots[slot]!=0) {
+				if (keys[slots[slot]-1]==key) {
+					return slot;
+				}
+				slot = (slot+1) & mask;
+			}
+
+			return -1;
+		}
+
+		/**
+		 * Vide la case SLOT, puis recule les entres suivantes de la mme grappe qui ne sont plus
+		 * atteignables depuis leur case d'origine (suppression sans pierre tombale)
+		 */
+		private void remove(int slot) {
+			slots[slot] = 0;
+
+			int hole = slot;
+			int j = slot;
+			while (true) {
+				j = (j+1) & mask;
+				if (slots[j]==0) {
+					return;
+				}
+
+				int home = hash(keys[slots[j]-1]) & mask;
+				// HOME est-il, circulairement, dans ]HOLE, J] ? alors l'entre reste atteignable
+				boolean reachable = (hole<=j) ? (hole<home && home<=j) : (hole<home || home<=j);
+				if ( ! reachable) {
+					slots[hole] = slots[j];
+					slots[j] = 0;
+					hole = j;
+				}
+			}
+		}
+
+		private void moveToHead(int entry) {
+			if (entry!=head) {
+				unlink(entry);
+				linkAtHead(entry);
+			}
+		}
+
+		private void linkAtHead(int entry) {
+			previous[entry] = -1;
+			next[entry] = head;
+			if (head>=0) {
+				previous[head] = entry;
+			}
+			head = entry;
+			if (tail<0) {
+				tail = entry;
+			}
+		}
+
+		private void unlink(int entry) {
+			int p = previous[entry];
+			int n = next[entry];
+
+			if (p>=0) {
+				next[p] = n;
+			}
+			else {
+				head = n;
+			}
+			if (n>=0) {
+				previous[n] = p;
+			}
+			else {
+				tail = p;
+			}
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package algorithms.arithmetic;
+
+/**
+ * Test de primalit de Miller-Rabin, dterministe pour tous les entiers sur 64 bits.
+ *
+ * - les petits nombres sont traits par division par essais
+ * - sous 2^32, les tmoins {2, 7, 61} suffisent et les produits tiennent sur 64 bits non signs
+ * - au-del, le jeu de 7 tmoins de Jim Sinclair couvre tout n < 2^64, et les exponentiations se font
+ *   dans la reprsentation de Montgomery (voir Montgomery), sans aucune division
+ */
+public class MillerRabin {
+
+	/** tmoins suffisants pour n < 2^32 */
+	private static final long[] WITNESSES_32 = {2, 7, 61};
+	/** tmoins suffisants pour n < 2^64 */
+	private static final long[] WITNESSES_64 = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+	/** les petits premiers utiliss pour le filtrage par division */
+	private static final int[] SMALL_PRIMES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53, 59, 61};
+	/** en dessous de cette borne, la division par essais est plus rapide que Miller-Rabin */
+	private static final long TRIAL_DIVISION_LIMIT = 1L << 16;
+
+	public MillerRabin() {
+
+	}
+
+	/**
+	 * @return TRUE si le nombre N est premier
+	 */
+	public static boolean isPrime(long n) {
+		if (n<2) {
+			return false;
+		}
+
+		for (int p : SMALL_PRIMES) {
+			if (n%p==0) {
+				return n==p;
+			}
+		}
+
+		long last = SMALL_PRIMES[SMALL_PRIMES.length-1];
+		if (n<last*last) {
+			return true;
+		}
+
+		if (n<TRIAL_DIVISION_LIMIT) {
+			int sqrt = (int) Math.sqrt((double) n);
+			for (int i=(int) last+2 ; i<=sqrt ; i+=2) {
+				if (n%i==0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		return passesWitnesses(n);
+	}
+
+	/**
+	 * @return TRUE si N (impair, sans facteur parmi les petits premiers) est un pseudo-premier fort
+	 * pour tous les tmoins : ce qui reste de isPrime une fois le filtrage fait ailleurs (voir BatchPrimality)
+	 */
+	static boolean passesWitnesses(long n) {
+		if (n>>>32==0) {
+			for (long a : WITNESSES_32) {
+				if ( ! isStrongProbablePrime(n, a)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		Montgomery mont = new Montgomery(n);
+		for (long a : WITNESSES_64) {
+			if ( ! isStrongProbablePrime(mont, a)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return TRUE si N (impair, > 2) est un pseudo-premier fort en base A
+	 */
+	public static boolean isStrongProbablePrime(long n, long a) {
+		a %= n;
+		if (a==0) {
+			return true;
+		}
+
+		// n-1 = d * 2^s
+		long d = n-1;
+		int s = Long.numberOfTrailingZeros(d);
+		d >>>= s;
+
+		long x = powMod(a, d, n);
+		if (x==1 || x==n-1) {
+			return true;
+		}
+
+		for (int r=1 ; r<s ; r++) {
+			x = mulMod(x, x, n);
+			if (x==n-1) {
+				return true;
+			}
+			if (x==1) {
+				return false;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return TRUE si MONT.n (impair, > 2^32) est un pseudo-premier fort en base A, tout le calcul
+	 * se faisant sur les reprsentants de Montgomery
+	 */
+	public static boolean isStrongProbablePrime(Montgomery mont, long a) {
+		long n = mont.n;
+		a %= n;
+		if (a==0) {
+			return true;
+		}
+
+		// les reprsentants de 1 et de -1
+		long one = mont.one;
+		long minusOne = n - one;
+
+		long d = n-1;
+		int s = Long.numberOfTrailingZeros(d);
+		d >>>= s;
+
+		long x = mont.pow(mont.toMontgomery(a), d);
+		if (x==one || x==minusOne) {
+			return true;
+		}
+
+		for (int r=1 ; r<s ; r++) {
+			x = mont.multiply(x, x);
+			if (x==minusOne) {
+				return true;
+			}
+			if (x==one) {
+				return false;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return A^E mod M (0 <= A < M, E >= 0) ; au-del de 32 bits, un module impair passe par Montgomery
+	 */
+	public static long powMod(long a, long e, long m) {
+		if ((m&1)==1 && m>>>32!=0) {
+			Montgomery mont = new Montgomery(m);
+			return mont.fromMontgomery(mont.pow(mont.toMontgomery(a), e));
+		}
+
+		long result = 1%m;
+
+		while (e>0) {
+			if ((e&1)==1) {
+				result = mulMod(result, a, m);
+			}
+			a = mulMod(a, a, m);
+			e >>>= 1;
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return A*B mod M (0 <= A, B < M), sans dbordement
+	 */
+	public static long mulMod(long a, long b, long m) {
+		// les deux facteurs tiennent sur 32 bits : le produit tient sur 64 bits non signs
+		if ((a|b)>>>32==0) {
+			return Long.remainderUnsigned(a*b, m);
+		}
+
+		// M >= 2^62 : aucune marge, multiplication par doublements successifs
+		int k = Long.numberOfLeadingZeros(m) - 1;
+		if (k==0) {
+			long result = 0;
+			while (b>0) {
+				if ((b&1)==1) {
+					result = addMod(result, a, m);
+				}
+				a = addMod(a, a, m);
+				b >>>= 1;
+			}
+			return result;
+		}
+
+		// sinon, B est trait par paquets de K bits, K tant la marge laisse par M sur 63 bits :
+		// R*2^K et A*paquet restent sous 2^63, leur somme sous 2^64 (non sign)
+		long mask = (1L << k) - 1;
+		int bits = 64 - Long.numberOfLeadingZeros(b);
+		long result = 0;
+
+		for (int shift=((bits-1)/k)*k ; shift>=0 ; shift-=k) {
+			long chunk = (b >>> shift) & mask;
+			result = Long.remainderUnsigned((result << k) + a*chunk, m);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return A+B mod M (0 <= A, B < M < 2^63)
+	 */
+	private static long addMod(long a, long b, long m) {
+		long sum = a+b;
+
+		// A+B < 2^64 : la comparaison non signe suffit
+		if (Long.compareUnsigned(sum, m)>=0) {
+			sum -= m;
+		}
+
+		return sum;
+	}
+}
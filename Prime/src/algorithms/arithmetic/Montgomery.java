@@ -0,0 +1,104 @@
+package algorithms.arithmetic;
+
+/**
+ * Arithmtique de Montgomery modulo un entier N impair (N < 2^63), avec R = 2^64.
+ *
+ * Un nombre A est reprsent par A*R mod N ; le produit de deux reprsentants se rduit
+ * sans aucune division (REDC), ce qui en fait le noyau des exponentiations et des itrations
+ * de rho sur 64 bits.
+ */
+public class Montgomery {
+
+	/** le module */
+	public final long n;
+	/** -N^-1 mod 2^64 */
+	private final long nInv;
+	/** R^2 mod N, pour passer dans la reprsentation de Montgomery */
+	private final long r2;
+	/** R mod N, le reprsentant de 1 */
+	public final long one;
+
+	public Montgomery(long n) {
+		if ((n&1)==0 || n<3) {
+			throw new IllegalArgumentException("module pair ou trop petit : " + n);
+		}
+
+		this.n = n;
+
+		// Newton : chaque itration double le nombre de bits corrects de l'inverse (N*N = 1 mod 8)
+		long inv = n;
+		for (int i=0 ; i<5 ; i++) {
+			inv *= 2 - n*inv;
+		}
+		this.nInv = -inv;
+
+		// 2^64 mod N = (2^64 - N) mod N
+		this.one = Long.remainderUnsigned(-n, n);
+		this.r2 = MillerRabin.mulMod(one, one, n);
+	}
+
+	/**
+	 * @return le reprsentant de A (0 <= A < N)
+	 */
+	public long toMontgomery(long a) {
+		return multiply(a, r2);
+	}
+
+	/**
+	 * @return la valeur reprsente par A
+	 */
+	public long fromMontgomery(long a) {
+		return reduce(0, a);
+	}
+
+	/**
+	 * @return le reprsentant de A*B (A et B tant des reprsentants)
+	 */
+	public long multiply(long a, long b) {
+		return reduce(multiplyHigh(a, b), a*b);
+	}
+
+	/**
+	 * @return le reprsentant de A^E (A tant un reprsentant, E >= 0)
+	 */
+	public long pow(long a, long e) {
+		long result = one;
+
+		while (e>0) {
+			if ((e&1)==1) {
+				result = multiply(result, a);
+			}
+			a = multiply(a, a);
+			e >>>= 1;
+		}
+
+		return result;
+	}
+
+	/**
+	 * REDC : (HI*2^64 + LO) / R mod N, pour HI < N
+	 */
+	private long reduce(long hi, long lo) {
+		long m = lo*nInv;
+		// LO + M*N = 0 mod 2^64 : la partie basse ne produit une retenue que si LO est non nul
+		long t = hi + multiplyHigh(m, n) + ((lo!=0) ? 1 : 0);
+
+		return (Long.compareUnsigned(t, n)>=0) ? t-n : t;
+	}
+
+	/**
+	 * @return les 64 bits de poids fort du produit non sign X*Y
+	 */
+	public static long multiplyHigh(long x, long y) {
+		long x0 = x & 0xFFFFFFFFL;
+		long x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL;
+		long y1 = y >>> 32;
+
+		long w0 = x0*y0;
+		long t = x1*y0 + (w0 >>> 32);
+		long w1 = (t & 0xFFFFFFFFL) + x0*y1;
+
+		return x1*y1 + (t >>> 32) + (w1 >>> 32);
+	}
+}
@@ -0,0 +1,351 @@
+package algorithms.arithmetic;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dcomposition en facteurs premiers des entiers sur 64 bits, en trois tapes :
+ * 		1/ division par les petits premiers (jusqu' TRIAL_LIMIT)
+ * 		2/ test de primalit dterministe (MillerRabin) sur chaque cofacteur
+ * 		3/ mthode rho de Pollard, variante de Brent, avec des PGCD groups, pour casser les cofacteurs composs
+ *
+ * Les itrations de rho se font entirement dans la reprsentation de Montgomery : le PGCD avec N
+ * n'est pas affect par le facteur R, inversible modulo N.
+ *
+ * Les BigInteger suivent les mmes tapes (BailliePSW comme test de primalit) et repassent sur 64 bits
+ * ds qu'un cofacteur y tient. Au-del de SIEVE_BITS, rho n'a droit qu' RHO_LIMIT itrations (pour les facteurs
+ * encore petits) avant de laisser la place au crible quadratique, aprs avoir cart les puissances parfaites ;
+ * au-del de QuadraticSieve.MAX_DIGITS chiffres, rho reprend sans limite.
+ */
+public class PollardRho {
+
+	/** borne de la division par essais */
+	private static final int TRIAL_LIMIT = 1000;
+	/** nombre de produits |x-y| accumuls avant chaque PGCD */
+	private static final int BATCH = 128;
+	/** taille  partir de laquelle un cofacteur compos est confi au crible quadratique */
+	private static final int SIEVE_BITS = 80;
+	/** itrations de rho avant le crible quadratique */
+	private static final long RHO_LIMIT = 1 << 15;
+	private static final QuadraticSieve SIEVE = new QuadraticSieve();
+	/** les premiers jusqu' TRIAL_LIMIT */
+	private static final int[] SMALL_PRIMES;
+
+	static {
+		int[] primes = new int[TRIAL_LIMIT];
+		int count = 0;
+		for (int p=2 ; p<TRIAL_LIMIT ; p++) {
+			if (MillerRabin.isPrime(p)) {
+				primes[count++] = p;
+			}
+		}
+		SMALL_PRIMES = Arrays.copyOf(primes, count);
+	}
+
+	public PollardRho() {
+
+	}
+
+	/**
+	 * @return la dcomposition de N en facteurs premiers, par ordre croissant (exemple : 12 => [2, 2, 3]) ; vide si N < 2
+	 */
+	public static long[] factor(long n) {
+		long[] factors = new long[64];
+		int count = 0;
+
+		if (n<2) {
+			return new long[0];
+		}
+
+		// 1/ division par essais
+		for (int p : SMALL_PRIMES) {
+			if ((long) p*p>n) {
+				break;
+			}
+			while (n%p==0) {
+				factors[count++] = p;
+				n /= p;
+			}
+		}
+
+		// le reste n'a aucun facteur sous TRIAL_LIMIT : s'il est infrieur  TRIAL_LIMIT^2, il est premier
+		if (n>1 && n<(long) TRIAL_LIMIT*TRIAL_LIMIT) {
+			factors[count++] = n;
+			n = 1;
+		}
+
+		// 2/ et 3/ pile des cofacteurs restant  dcomposer
+		long[] stack = new long[64];
+		int top = 0;
+		if (n>1) {
+			stack[top++] = n;
+		}
+
+		while (top>0) {
+			long m = stack[--top];
+
+			if (MillerRabin.isPrime(m)) {
+				factors[count++] = m;
+			}
+			else {
+				long d = findFactor(m);
+				stack[top++] = d;
+				stack[top++] = m/d;
+			}
+		}
+
+		Arrays.sort(factors, 0, count);
+		return Arrays.copyOf(factors, count);
+	}
+
+	/**
+	 * @return la dcomposition de N en facteurs premiers, par ordre croissant ; vide si N < 2
+	 */
+	public static List<BigInteger> factor(BigInteger n) {
+		List<BigInteger> factors = new ArrayList<>();
+
+		if (n.compareTo(BigInteger.valueOf(2))<0) {
+			return factors;
+		}
+
+		if (n.bitLength()<64) {
+			for (long f : factor(n.longValue())) {
+				factors.add(BigInteger.valueOf(f));
+			}
+			return factors;
+		}
+
+		// 1/ division par essais
+		for (int p : SMALL_PRIMES) {
+			BigInteger bp = BigInteger.valueOf(p);
+			while (true) {
+				BigInteger[] qr = n.divideAndRemainder(bp);
+				if (qr[1].signum()!=0) {
+					break;
+				}
+				factors.add(bp);
+				n = qr[0];
+			}
+		}
+
+		// 2/ et 3/ pile des cofacteurs restant  dcomposer
+		List<BigInteger> stack = new ArrayList<>();
+		if ( ! n.equals(BigInteger.ONE)) {
+			stack.add(n);
+		}
+
+		while ( ! stack.isEmpty()) {
+			BigInteger m = stack.remove(stack.size()-1);
+
+			if (m.bitLength()<64) {
+				for (long f : factor(m.longValue())) {
+					factors.add(BigInteger.valueOf(f));
+				}
+			}
+			else if (BailliePSW.isPrime(m)) {
+				factors.add(m);
+			}
+			else if (m.bitLength()<SIEVE_BITS) {
+				BigInteger d = findFactor(m);
+				stack.add(d);
+				stack.add(m.divide(d));
+			}
+			else {
+				BigInteger d = findFactor(m, RHO_LIMIT);
+				if (d==null) {
+					d = perfectPowerRoot(m);
+				}
+				if (d==null) {
+					d = QuadraticSieve.accepts(m) ? SIEVE.findFactor(m) : findFactor(m);
+				}
+				stack.add(d);
+				stack.add(m.divide(d));
+			}
+		}
+
+		Collections.sort(factors);
+		return factors;
+	}
+
+	/**
+	 * Mthode rho de Pollard, variante de Brent : on itre x -> x^2 + c mod N et on accumule BATCH produits |x-y|
+	 * avant de calculer un PGCD avec N (un seul PGCD au lieu de BATCH).
+	 * @return un diviseur non trivial de N (compos)
+	 */
+	public static long findFactor(long n) {
+		if ((n&1)==0) {
+			return 2;
+		}
+
+		Montgomery mont = new Montgomery(n);
+
+		for (long c=1 ; ; c++) {
+			long y = 2;
+			long x = y;
+			long ys = y;
+			long q = 1;
+			long g = 1;
+
+			for (long r=1 ; g==1 ; r<<=1) {
+				x = y;
+				for (long i=0 ; i<r ; i++) {
+					y = next(mont, y, c);
+				}
+
+				for (long k=0 ; k<r && g==1 ; k+=BATCH) {
+					ys = y;
+					long steps = Math.min(BATCH, r-k);
+					for (long i=0 ; i<steps ; i++) {
+						y = next(mont, y, c);
+						q = mont.multiply(q, Math.abs(x-y));
+					}
+					g = gcd(q, n);
+				}
+			}
+
+			// le lot a tout englob : on reprend pas  pas depuis le dbut du lot
+			if (g==n) {
+				do {
+					ys = next(mont, ys, c);
+					g = gcd(Math.abs(x-ys), n);
+				} while (g==1);
+			}
+
+			if (g!=n) {
+				return g;
+			}
+		}
+	}
+
+	/**
+	 * Rho de Pollard-Brent sur les BigInteger, avec les mmes PGCD groups
+	 * @return un diviseur non trivial de N (compos, sans petit facteur)
+	 */
+	public static BigInteger findFactor(BigInteger n) {
+		return findFactor(n, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @return un diviseur non trivial de N (compos, sans petit facteur), ou null s'il n'est pas trouv
+	 * en LIMIT itrations environ
+	 */
+	private static BigInteger findFactor(BigInteger n, long limit) {
+		long iterations = 0;
+
+		for (long c=1 ; iterations<limit ; c++) {
+			BigInteger bc = BigInteger.valueOf(c);
+			BigInteger y = BigInteger.valueOf(2);
+			BigInteger x = y;
+			BigInteger ys = y;
+			BigInteger q = BigInteger.ONE;
+			BigInteger g = BigInteger.ONE;
+
+			for (long r=1 ; g.equals(BigInteger.ONE) ; r<<=1) {
+				if (iterations>=limit) {
+					return null;
+				}
+				iterations += 2*r;
+				x = y;
+				for (long i=0 ; i<r ; i++) {
+					y = y.multiply(y).add(bc).mod(n);
+				}
+
+				for (long k=0 ; k<r && g.equals(BigInteger.ONE) ; k+=BATCH) {
+					ys = y;
+					long steps = Math.min(BATCH, r-k);
+					for (long i=0 ; i<steps ; i++) {
+						y = y.multiply(y).add(bc).mod(n);
+						q = q.multiply(x.subtract(y).abs()).mod(n);
+					}
+					g = q.gcd(n);
+				}
+			}
+
+			// le lot a tout englob : on reprend pas  pas depuis le dbut du lot
+			if (g.equals(n)) {
+				do {
+					ys = ys.multiply(ys).add(bc).mod(n);
+					g = x.subtract(ys).abs().gcd(n);
+				} while (g.equals(BigInteger.ONE));
+			}
+
+			if ( ! g.equals(n)) {
+				return g;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return R si N = R^K (K >= 2), null sinon ; N n'ayant pas de facteur infrieur  TRIAL_LIMIT, K < log(N) / log(TRIAL_LIMIT)
+	 */
+	private static BigInteger perfectPowerRoot(BigInteger n) {
+		for (int k=2 ; k<=n.bitLength()/9 ; k++) {
+			BigInteger r = root(n, k);
+			if (r.pow(k).equals(n)) {
+				return r;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return la partie entire de la racine K-ime de N > 0 (Newton)
+	 */
+	private static BigInteger root(BigInteger n, int k) {
+		BigInteger bk = BigInteger.valueOf(k);
+		BigInteger km1 = BigInteger.valueOf(k-1);
+		// 2^ceil(bits/k) >= racine
+		BigInteger x = BigInteger.ONE.shiftLeft((n.bitLength()+k-1)/k);
+
+		while (true) {
+			BigInteger y = km1.multiply(x).add(n.divide(x.pow(k-1))).divide(bk);
+			if (y.compareTo(x)>=0) {
+				return x;
+			}
+			x = y;
+		}
+	}
+
+	/**
+	 * @return X^2 + C mod N, dans la reprsentation de Montgomery
+	 */
+	private static long next(Montgomery mont, long x, long c) {
+		long y = mont.multiply(x, x) + c;
+
+		// X^2 mod N < N < 2^63 et C petit : seul un dpassement sign est possible
+		return (y<0 || y>=mont.n) ? y-mont.n : y;
+	}
+
+	/**
+	 * @return le PGCD de A et B (binaire)
+	 */
+	public static long gcd(long a, long b) {
+		if (a==0) {
+			return b;
+		}
+		if (b==0) {
+			return a;
+		}
+
+		int shift = Long.numberOfTrailingZeros(a|b);
+		a >>>= Long.numberOfTrailingZeros(a);
+
+		while (b!=0) {
+			b >>>= Long.numberOfTrailingZeros(b);
+			if (a>b) {
+				long t = a;
+				a = b;
+				b = t;
+			}
+			b -= a;
+		}
+
+		return a << shift;
+	}
+}
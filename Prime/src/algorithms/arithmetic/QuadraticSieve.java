@@ -0,0 +1,889 @@
+package algorithms.arithmetic;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Crible quadratique auto-initialisant (SIQS) : trouve un facteur d'un BigInteger compos de 25  MAX_DIGITS chiffres,
+ * sans petit facteur et qui n'est pas une puissance parfaite (voir PollardRho.factor, qui s'en assure).
+ *
+ * 		1/ un multiplicateur k (Knuth-Schroeppel), puis la base de facteurs : les premiers p pour lesquels
+ * 		   kN est un carr modulo p, avec une racine de kN modulo p (Tonelli-Shanks)
+ * 		2/ des polynmes g(x) = ((ax + b)^2 - kN) / a, o a est un produit de premiers q de la base proche de
+ * 		   racine(2kN) / M : pour un mme a, les 2^(s-1) valeurs de b s'enchanent par un code de Gray et
+ * 		   leurs racines modulo p se mettent  jour par une simple addition
+ * 		3/ le crible : sur [-M, M[, chaque premier ajoute son logarithme (arrondi, sur un octet) aux positions
+ * 		   de ses deux racines ; les x qui dpassent le seuil sont factoriss par les seuls premiers dont une racine
+ * 		   tombe sur x. Les relations  un grand premier (cofacteur < LARGE_PRIME_MULTIPLIER * pmax) sont apparies.
+ * 		   Les workers criblent chacun leurs propres valeurs de a, en parallle sur un ForkJoinPool
+ * 		4/ l'algbre linaire sur GF(2) : limination structure des colonnes de poids 1 (et de leurs relations),
+ * 		   puis limination de Gauss sur des lignes de bits, qui donne des combinaisons X^2 = Y^2 mod N
+ * 		5/ PGCD(X - Y, N)
+ *
+ * L'limination de Gauss dense cote O(n^3 / 64) pour une base de n premiers : 11000 premiers  80 chiffres restent
+ * raisonnables, mais au-del la matrice et le temps explosent (il faudrait Lanczos par blocs), d'o MAX_DIGITS.
+ */
+public class QuadraticSieve {
+
+	/** {chiffres, taille de la base de facteurs, demi-intervalle M}, interpols linairement */
+	private static final int[][] PARAMETERS = {
+		{20, 100, 16384},
+		{30, 200, 32768},
+		{40, 500, 65536},
+		{50, 1200, 65536},
+		{60, 2800, 98304},
+		{70, 6000, 131072},
+		{80, 11000, 196608},
+	};
+	/** au-del, l'algbre linaire dense est trop lourde */
+	public static final int MAX_DIGITS = 80;
+	/** multiplicateurs sans facteur carr essays par Knuth-Schroeppel */
+	private static final int[] MULTIPLIERS = {1, 3, 5, 7, 11, 13, 15, 17, 19, 21, 23, 29, 31, 33, 35, 37, 39, 41, 43, 47, 51, 53, 55, 57, 59, 61, 65, 67, 69, 71, 73};
+	/** relations en plus de la taille de la base */
+	private static final int EXTRA_RELATIONS = 64;
+	/** un cofacteur infrieur  LARGE_PRIME_MULTIPLIER * pmax est gard comme grand premier */
+	private static final int LARGE_PRIME_MULTIPLIER = 64;
+	/** les premiers infrieurs ne sont pas cribls (beaucoup d'critures pour peu de logarithme) */
+	private static final int SIEVE_SMALLEST = 32;
+	/** tolrance du seuil, en multiples de log2(pmax) */
+	private static final double THRESHOLD_FUDGE = 2.1;
+	/** taille idale des premiers q qui composent a */
+	private static final int IDEAL_Q = 2000;
+
+	private final ForkJoinPool pool;
+
+	public QuadraticSieve() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public QuadraticSieve(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return TRUE si N n'a pas plus de MAX_DIGITS chiffres
+	 */
+	public static boolean accepts(BigInteger n) {
+		return n.abs().toString().length() <= MAX_DIGITS;
+	}
+
+	/**
+	 * @return un diviseur non trivial de N (impair, compos, sans facteur premier dans la base, au plus MAX_DIGITS chiffres)
+	 */
+	public BigInteger findFactor(BigInteger n) {
+		if ( ! accepts(n)) {
+			throw new IllegalArgumentException("plus de " + MAX_DIGITS + " chiffres : " + n);
+		}
+
+		Context context = new Context(n);
+
+		// un premier de la base qui divise N : rien  cribler
+		for (int p : context.primes) {
+			if (n.mod(BigInteger.valueOf(p)).signum()==0) {
+				return BigInteger.valueOf(p);
+			}
+		}
+
+		Collector collector = new Collector(context);
+		int needed = context.size + 1 + EXTRA_RELATIONS;
+
+		while (true) {
+			List<ForkJoinTask<?>> workers = new ArrayList<>();
+			for (int w=0 ; w<pool.getParallelism() ; w++) {
+				Worker worker = new Worker(context, collector, needed, 0x5152L*(w+1) ^ n.longValue());
+				workers.add(pool.submit(worker));
+			}
+			for (ForkJoinTask<?> worker : workers) {
+				worker.join();
+			}
+
+			BigInteger factor = solve(context, collector.getRelations());
+			if (factor!=null) {
+				return factor;
+			}
+
+			// toutes les dpendances taient triviales : quelques relations de plus
+			needed += EXTRA_RELATIONS;
+		}
+	}
+
+	/**
+	 * Tout ce qui ne dpend que de N : le multiplicateur, la base de facteurs et les paramtres du crible
+	 */
+	private static class Context {
+
+		private final BigInteger n;
+		private final BigInteger kn;
+		/** la base : 2 puis les premiers impairs p tels que kN soit un carr modulo p */
+		private final int[] primes;
+		/** SQRTS[j] : une racine carre de kN modulo PRIMES[j] */
+		private final int[] sqrts;
+		/** LOGS[j] : log2(PRIMES[j]) arrondi */
+		private final byte[] logs;
+		private final int size;
+		/** le premier indice cribl */
+		private final int sieveStart;
+		private final int m;
+		private final int threshold;
+		private final long largePrimeBound;
+		/** log(racine(2kN) / M), la taille vise pour a */
+		private final double logTarget;
+		/** le nombre de premiers q dans a, et l'intervalle d'indices o ils sont choisis */
+		private final int s;
+		private final int qLow;
+		private final int qHigh;
+
+		private Context(BigInteger n) {
+			this.n = n;
+
+			double digits = n.bitLength()*Math.log10(2);
+			this.size = (int) interpolate(digits, 1);
+			this.m = (int) interpolate(digits, 2) / 2 * 2;
+
+			int k = multiplier(n);
+			this.kn = n.multiply(BigInteger.valueOf(k));
+
+			// la base de facteurs
+			int[] primes = new int[size];
+			int[] sqrts = new int[size];
+			primes[0] = 2;
+			sqrts[0] = kn.testBit(0) ? 1 : 0;
+			int count = 1;
+			for (int p=3 ; count<size ; p+=2) {
+				if ( ! MillerRabin.isPrime(p)) {
+					continue;
+				}
+				long r = kn.mod(BigInteger.valueOf(p)).longValue();
+				if (r==0 || legendre(r, p)==1) {
+					primes[count] = p;
+					sqrts[count] = (int) sqrtMod(r, p);
+					count++;
+				}
+			}
+			this.primes = primes;
+			this.sqrts = sqrts;
+
+			this.logs = new byte[size];
+			for (int j=0 ; j<size ; j++) {
+				logs[j] = (byte) Math.round(Math.log(primes[j]) / Math.log(2));
+			}
+
+			int start = 1;
+			while (start<size && primes[start]<SIEVE_SMALLEST) {
+				start++;
+			}
+			this.sieveStart = start;
+
+			// le logarithme attendu des petits premiers non cribls (2 compris) est retir du seuil
+			double skipped = 1;
+			for (int j=1 ; j<sieveStart ; j++) {
+				skipped += 2*Math.log(primes[j]) / Math.log(2) / (primes[j]-1);
+			}
+
+			long pmax = primes[size-1];
+			double logMax = Math.log(m)/Math.log(2) + kn.bitLength()/2.0 - 0.5;
+			this.threshold = (int) Math.round(logMax - skipped - THRESHOLD_FUDGE*Math.log(pmax)/Math.log(2));
+			this.largePrimeBound = Math.min(pmax*LARGE_PRIME_MULTIPLIER, pmax*pmax);
+
+			// a doit valoir  peu prs racine(2kN) / M
+			this.logTarget = 0.5*Math.log(2) + 0.5*log(kn) - Math.log(m);
+			double ideal = Math.min(IDEAL_Q, primes[size/2]);
+			this.s = Math.max(2, (int) Math.round(logTarget/Math.log(ideal)));
+			double center = Math.exp(logTarget/s);
+
+			int low = sieveStart;
+			while (low<size-1 && primes[low]<center/2) {
+				low++;
+			}
+			int high = low;
+			while (high<size-1 && primes[high]<center*2) {
+				high++;
+			}
+			// assez de premiers pour varier les a
+			while (high-low<Math.max(2*s, 20) && (low>sieveStart || high<size-1)) {
+				low = Math.max(sieveStart, low-1);
+				high = Math.min(size-1, high+1);
+			}
+			this.qLow = low;
+			this.qHigh = high;
+		}
+
+		private static double interpolate(double digits, int column) {
+			if (digits<=PARAMETERS[0][0]) {
+				return PARAMETERS[0][column];
+			}
+			for (int i=1 ; i<PARAMETERS.length ; i++) {
+				if (digits<=PARAMETERS[i][0]) {
+					int[] a = PARAMETERS[i-1];
+					int[] b = PARAMETERS[i];
+					return a[column] + (b[column]-a[column]) * (digits-a[0]) / (b[0]-a[0]);
+				}
+			}
+
+			return PARAMETERS[PARAMETERS.length-1][column];
+		}
+	}
+
+	/**
+	 * Une relation Y^2 = (-1)^e0 * produit des premiers de la base * EXTRA^2 (mod N)
+	 */
+	private static class Relation {
+
+		private final BigInteger y;
+		/** les colonnes (0 pour -1, j+1 pour PRIMES[j]), rptes autant de fois que l'exposant */
+		private final int[] factors;
+		/** le produit des grands premiers apparis (leur carr est dans le membre de droite) */
+		private final BigInteger extra;
+
+		private Relation(BigInteger y, int[] factors, BigInteger extra) {
+			this.y = y;
+			this.factors = factors;
+			this.extra = extra;
+		}
+	}
+
+	/**
+	 * Les relations trouves par tous les workers : compltes, ou en attente d'un second grand premier identique
+	 */
+	private static class Collector {
+
+		private final Context context;
+		private final List<Relation> relations = new ArrayList<>();
+		private final Map<Long, Relation> partials = new HashMap<>();
+		private final Set<BigInteger> usedA = new HashSet<>();
+
+		private Collector(Context context) {
+			this.context = context;
+		}
+
+		private synchronized int size() {
+			return relations.size();
+		}
+
+		private synchronized List<Relation> getRelations() {
+			return new ArrayList<>(relations);
+		}
+
+		/**
+		 * @return FALSE si A a dj t pris par un worker
+		 */
+		private synchronized boolean claim(BigInteger a) {
+			return usedA.add(a);
+		}
+
+		private synchronized void add(Relation relation, long largePrime) {
+			if (largePrime==1) {
+				relations.add(relation);
+				return;
+			}
+
+			Relation other = partials.get(largePrime);
+			if (other==null) {
+				partials.put(largePrime, relation);
+				return;
+			}
+
+			// (Y1*Y2)^2 = produit * L^2
+			int[] factors = Arrays.copyOf(other.factors, other.factors.length+relation.factors.length);
+			System.arraycopy(relation.factors, 0, factors, other.factors.length, relation.factors.length);
+			BigInteger y = other.y.multiply(relation.y).mod(context.n);
+			relations.add(new Relation(y, factors, BigInteger.valueOf(largePrime)));
+		}
+	}
+
+	/**
+	 * Un worker : choisit des a, crible tous leurs polynmes et envoie les relations au Collector,
+	 * jusqu' ce qu'il y en ait NEEDED
+	 */
+	private static class Worker implements Runnable {
+
+		private final Context context;
+		private final Collector collector;
+		private final int needed;
+		private final Random random;
+
+		private final byte[] sieve;
+		private final int[] root1;
+		private final int[] root2;
+		/** DELTAS[l][j] : 2 * B_l / a mod PRIMES[j], le dplacement des racines quand B_l change de signe */
+		private final int[][] deltas;
+		/** les indices des q qui composent a */
+		private final int[] qIndices;
+		private final boolean[] inA;
+		private final BigInteger[] bTerms;
+
+		private BigInteger a;
+		private BigInteger b;
+		private BigInteger c;
+
+		private Worker(Context context, Collector collector, int needed, long seed) {
+			this.context = context;
+			this.collector = collector;
+			this.needed = needed;
+			this.random = new Random(seed);
+			this.sieve = new byte[2*context.m];
+			this.root1 = new int[context.size];
+			this.root2 = new int[context.size];
+			this.deltas = new int[context.s][context.size];
+			this.qIndices = new int[context.s];
+			this.inA = new boolean[context.size];
+			this.bTerms = new BigInteger[context.s];
+		}
+
+		@Override
+		public void run() {
+			int s = context.s;
+			int[] signs = new int[s];
+
+			while (collector.size()<needed) {
+				chooseA();
+				initialize();
+				Arrays.fill(signs, 1);
+
+				for (int i=0 ; i<(1 << (s-1)) && collector.size()<needed ; i++) {
+					if (i>0) {
+						// code de Gray : seul B_v change de signe
+						int v = Integer.numberOfTrailingZeros(i);
+						BigInteger twice = bTerms[v].shiftLeft(1);
+						if (signs[v]>0) {
+							b = b.subtract(twice);
+							shiftRoots(deltas[v], 1);
+						}
+						else {
+							b = b.add(twice);
+							shiftRoots(deltas[v], -1);
+						}
+						signs[v] = -signs[v];
+						c = b.multiply(b).subtract(context.kn).divide(a);
+					}
+
+					sievePolynomial();
+				}
+			}
+		}
+
+		/**
+		 * a = q_1 ... q_s, proche de racine(2kN) / M : s-1 premiers au hasard, le dernier pour s'approcher de la cible
+		 */
+		private void chooseA() {
+			int s = context.s;
+			int[] primes = context.primes;
+
+			while (true) {
+				Arrays.fill(inA, false);
+				double logProduct = 0;
+
+				for (int l=0 ; l<s-1 ; l++) {
+					int j;
+					do {
+						j = context.qLow + random.nextInt(context.qHigh-context.qLow+1);
+					} while (inA[j] || context.sqrts[j]==0);
+					inA[j] = true;
+					qIndices[l] = j;
+					logProduct += Math.log(primes[j]);
+				}
+
+				// le dernier : le premier de la base le plus proche du quotient restant
+				double last = Math.exp(context.logTarget - logProduct);
+				int j = Arrays.binarySearch(primes, (int) Math.min(last, Integer.MAX_VALUE));
+				j = (j<0) ? Math.min(-j-1, context.size-1) : j;
+				while (j<context.size && (inA[j] || context.sqrts[j]==0 || j<context.sieveStart)) {
+					j++;
+				}
+				if (j>=context.size) {
+					continue;
+				}
+				inA[j] = true;
+				qIndices[s-1] = j;
+
+				BigInteger product = BigInteger.ONE;
+				for (int q : qIndices) {
+					product = product.multiply(BigInteger.valueOf(primes[q]));
+				}
+
+				if (collector.claim(product)) {
+					a = product;
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Calcule les B_l, le premier b, et les racines de g modulo chaque premier de la base
+		 */
+		private void initialize() {
+			int[] primes = context.primes;
+
+			b = BigInteger.ZERO;
+			for (int l=0 ; l<context.s ; l++) {
+				long q = primes[qIndices[l]];
+				BigInteger bq = BigInteger.valueOf(q);
+				BigInteger quotient = a.divide(bq);
+				// gamma = t * (a/q)^-1 mod q, le plus petit des deux
+				long gamma = context.sqrts[qIndices[l]] * inverse(quotient.mod(bq).longValue(), q) % q;
+				if (gamma>q/2) {
+					gamma = q-gamma;
+				}
+				bTerms[l] = quotient.multiply(BigInteger.valueOf(gamma));
+				b = b.add(bTerms[l]);
+			}
+			c = b.multiply(b).subtract(context.kn).divide(a);
+
+			for (int j=1 ; j<context.size ; j++) {
+				if (inA[j]) {
+					continue;
+				}
+
+				long p = primes[j];
+				BigInteger bp = BigInteger.valueOf(p);
+				long aInv = inverse(a.mod(bp).longValue(), p);
+				long bm = b.mod(bp).longValue();
+				long t = context.sqrts[j];
+
+				long r1 = aInv * ((t - bm + p) % p) % p;
+				long r2 = aInv * ((2*p - t - bm) % p) % p;
+				root1[j] = (int) ((r1 + context.m) % p);
+				root2[j] = (int) ((r2 + context.m) % p);
+
+				for (int l=0 ; l<context.s ; l++) {
+					deltas[l][j] = (int) (2 * bTerms[l].mod(bp).longValue() % p * aInv % p);
+				}
+			}
+		}
+
+		private void shiftRoots(int[] delta, int sign) {
+			int[] primes = context.primes;
+
+			for (int j=1 ; j<context.size ; j++) {
+				if (inA[j]) {
+					continue;
+				}
+
+				int p = primes[j];
+				int d = (sign>0) ? delta[j] : p-delta[j];
+				int r = root1[j] + d;
+				root1[j] = (r>=p) ? r-p : r;
+				r = root2[j] + d;
+				root2[j] = (r>=p) ? r-p : r;
+			}
+		}
+
+		private void sievePolynomial() {
+			int[] primes = context.primes;
+			byte[] logs = context.logs;
+			int length = sieve.length;
+
+			Arrays.fill(sieve, (byte) 0);
+
+			for (int j=context.sieveStart ; j<context.size ; j++) {
+				if (inA[j]) {
+					continue;
+				}
+
+				int p = primes[j];
+				byte log = logs[j];
+				for (int x=root1[j] ; x<length ; x+=p) {
+					sieve[x] += log;
+				}
+				if (root2[j]!=root1[j]) {
+					for (int x=root2[j] ; x<length ; x+=p) {
+						sieve[x] += log;
+					}
+				}
+			}
+
+			int threshold = context.threshold;
+			for (int i=0 ; i<length ; i++) {
+				if ((sieve[i] & 0xFF)>=threshold) {
+					checkCandidate(i);
+				}
+			}
+		}
+
+		/**
+		 * Factorise g(x), x = I - M, par les premiers de la base qui le divisent, et garde la relation si le reste
+		 * vaut 1 ou est un grand premier
+		 */
+		private void checkCandidate(int i) {
+			int[] primes = context.primes;
+			BigInteger x = BigInteger.valueOf(i - context.m);
+			BigInteger g = a.multiply(x).add(b.shiftLeft(1)).multiply(x).add(c);
+
+			if (g.signum()==0) {
+				return;
+			}
+
+			int[] factors = new int[64];
+			int count = 0;
+
+			if (g.signum()<0) {
+				factors[count++] = 0;
+				g = g.negate();
+			}
+
+			// (ax + b)^2 - kN = a * g(x) : les q de a font partie du membre de droite
+			for (int q : qIndices) {
+				factors[count++] = q+1;
+			}
+
+			int twos = g.getLowestSetBit();
+			g = g.shiftRight(twos);
+			for (int t=0 ; t<twos ; t++) {
+				factors = grow(factors, count);
+				factors[count++] = 1;
+			}
+
+			long rest = (g.bitLength()<63) ? g.longValue() : -1;
+			for (int j=1 ; j<context.size ; j++) {
+				int p = primes[j];
+
+				if ( ! inA[j]) {
+					int r = i % p;
+					if (r!=root1[j] && r!=root2[j]) {
+						continue;
+					}
+				}
+
+				// division tant que possible (sur un long ds que le reste y tient)
+				while (true) {
+					if (rest>=0) {
+						if (rest%p!=0) {
+							break;
+						}
+						rest /= p;
+					}
+					else {
+						BigInteger[] qr = g.divideAndRemainder(BigInteger.valueOf(p));
+						if (qr[1].signum()!=0) {
+							break;
+						}
+						g = qr[0];
+						if (g.bitLength()<63) {
+							rest = g.longValue();
+						}
+					}
+					factors = grow(factors, count);
+					factors[count++] = j+1;
+				}
+			}
+
+			if (rest<0) {
+				return;
+			}
+			if (rest==1 || rest<context.largePrimeBound) {
+				BigInteger y = a.multiply(x).add(b);
+				collector.add(new Relation(y, Arrays.copyOf(factors, count), BigInteger.ONE), rest);
+			}
+		}
+	}
+
+	/**
+	 * @return un facteur non trivial tir des dpendances entre RELATIONS, ou null si elles sont toutes triviales
+	 */
+	private static BigInteger solve(Context context, List<Relation> relations) {
+		int columns = context.size+1;
+		int rows = relations.size();
+
+		// la parit de chaque colonne dans chaque relation
+		List<int[]> odd = new ArrayList<>(rows);
+		for (Relation relation : relations) {
+			int[] counts = new int[columns];
+			for (int f : relation.factors) {
+				counts[f] ^= 1;
+			}
+			int n = 0;
+			for (int col=0 ; col<columns ; col++) {
+				n += counts[col];
+			}
+			int[] list = new int[n];
+			n = 0;
+			for (int col=0 ; col<columns ; col++) {
+				if (counts[col]==1) {
+					list[n++] = col;
+				}
+			}
+			odd.add(list);
+		}
+
+		// limination structure : une colonne de poids 1 ne peut pas s'annuler, sa relation est inutile
+		boolean[] removed = new boolean[rows];
+		int[] weights = new int[columns];
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			Arrays.fill(weights, 0);
+			for (int r=0 ; r<rows ; r++) {
+				if ( ! removed[r]) {
+					for (int col : odd.get(r)) {
+						weights[col]++;
+					}
+				}
+			}
+			for (int r=0 ; r<rows ; r++) {
+				if ( ! removed[r]) {
+					for (int col : odd.get(r)) {
+						if (weights[col]==1) {
+							removed[r] = true;
+							changed = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		// colonnes restantes renumrotes
+		int[] index = new int[columns];
+		int width = 0;
+		for (int col=0 ; col<columns ; col++) {
+			index[col] = (weights[col]>0) ? width++ : -1;
+		}
+		int[] kept = new int[rows];
+		int height = 0;
+		for (int r=0 ; r<rows ; r++) {
+			if ( ! removed[r]) {
+				kept[height++] = r;
+			}
+		}
+
+		// limination de Gauss : chaque ligne porte ses colonnes puis l'identit (la combinaison de relations)
+		int words = (width+height+63) >>> 6;
+		long[][] matrix = new long[height][words];
+		for (int h=0 ; h<height ; h++) {
+			for (int col : odd.get(kept[h])) {
+				int c = index[col];
+				matrix[h][c>>>6] |= 1L << (c & 63);
+			}
+			int id = width+h;
+			matrix[h][id>>>6] |= 1L << (id & 63);
+		}
+
+		boolean[] pivot = new boolean[height];
+		for (int c=0 ; c<width ; c++) {
+			int word = c>>>6;
+			long bit = 1L << (c & 63);
+
+			int p = -1;
+			for (int h=0 ; h<height ; h++) {
+				if ( ! pivot[h] && (matrix[h][word] & bit)!=0) {
+					p = h;
+					break;
+				}
+			}
+			if (p<0) {
+				continue;
+			}
+			pivot[p] = true;
+
+			long[] source = matrix[p];
+			for (int h=0 ; h<height ; h++) {
+				if (h!=p && ! pivot[h] && (matrix[h][word] & bit)!=0) {
+					long[] target = matrix[h];
+					for (int w=word ; w<words ; w++) {
+						target[w] ^= source[w];
+					}
+				}
+			}
+		}
+
+		// les lignes sans pivot sont nulles sur les colonnes : leur identit est une dpendance
+		for (int h=0 ; h<height ; h++) {
+			if (pivot[h]) {
+				continue;
+			}
+
+			BigInteger factor = tryDependency(context, relations, kept, matrix[h], width, height);
+			if (factor!=null) {
+				return factor;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return PGCD(X - Y, N) s'il n'est pas trivial, X tant le produit des y de la dpendance
+	 * et Y la racine carre du produit de leurs membres de droite
+	 */
+	private static BigInteger tryDependency(Context context, List<Relation> relations, int[] kept, long[] row, int width, int height) {
+		BigInteger n = context.n;
+		int[] exponents = new int[context.size+1];
+		BigInteger x = BigInteger.ONE;
+		BigInteger y = BigInteger.ONE;
+
+		for (int h=0 ; h<height ; h++) {
+			int id = width+h;
+			if ((row[id>>>6] & (1L << (id & 63)))==0) {
+				continue;
+			}
+
+			Relation relation = relations.get(kept[h]);
+			x = x.multiply(relation.y).mod(n);
+			y = y.multiply(relation.extra).mod(n);
+			for (int f : relation.factors) {
+				exponents[f]++;
+			}
+		}
+
+		for (int col=1 ; col<exponents.length ; col++) {
+			if ((exponents[col] & 1)!=0) {
+				return null;
+			}
+			if (exponents[col]>0) {
+				BigInteger p = BigInteger.valueOf(context.primes[col-1]);
+				y = y.multiply(p.modPow(BigInteger.valueOf(exponents[col]/2), n)).mod(n);
+			}
+		}
+
+		BigInteger g = x.subtract(y).gcd(n);
+		if (g.equals(BigInteger.ONE) || g.equals(n)) {
+			return null;
+		}
+
+		return g;
+	}
+
+	/**
+	 * @return le multiplicateur k qui maximise la contribution attendue des petits premiers (Knuth-Schroeppel)
+	 */
+	private static int multiplier(BigInteger n) {
+		int best = 1;
+		double bestScore = Double.NEGATIVE_INFINITY;
+
+		for (int k : MULTIPLIERS) {
+			BigInteger kn = n.multiply(BigInteger.valueOf(k));
+			double score = -0.5*Math.log(k);
+
+			int mod8 = kn.mod(BigInteger.valueOf(8)).intValue();
+			if (mod8==1) {
+				score += 2*Math.log(2);
+			}
+			else if (mod8==5) {
+				score += Math.log(2);
+			}
+			else if (mod8==3 || mod8==7) {
+				score += 0.5*Math.log(2);
+			}
+
+			for (int p=3 ; p<1000 ; p+=2) {
+				if ( ! MillerRabin.isPrime(p)) {
+					continue;
+				}
+				long r = kn.mod(BigInteger.valueOf(p)).longValue();
+				if (r==0) {
+					score += Math.log(p)/p;
+				}
+				else if (legendre(r, p)==1) {
+					score += 2*Math.log(p)/(p-1);
+				}
+			}
+
+			if (score>bestScore) {
+				bestScore = score;
+				best = k;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * @return le symbole de Legendre (A / P), P premier impair, 0 <= A < P
+	 */
+	private static int legendre(long a, long p) {
+		long e = MillerRabin.powMod(a, (p-1)/2, p);
+
+		return (e==1) ? 1 : (e==0) ? 0 : -1;
+	}
+
+	/**
+	 * @return une racine carre de A modulo P premier (A rsidu quadratique), par Tonelli-Shanks
+	 */
+	private static long sqrtMod(long a, long p) {
+		if (a==0) {
+			return 0;
+		}
+		if (p%4==3) {
+			return MillerRabin.powMod(a, (p+1)/4, p);
+		}
+
+		// p-1 = q * 2^s
+		long q = p-1;
+		int s = Long.numberOfTrailingZeros(q);
+		q >>>= s;
+
+		long z = 2;
+		while (legendre(z, p)!=-1) {
+			z++;
+		}
+
+		long c = MillerRabin.powMod(z, q, p);
+		long r = MillerRabin.powMod(a, (q+1)/2, p);
+		long t = MillerRabin.powMod(a, q, p);
+		int m = s;
+
+		while (t!=1) {
+			int i = 0;
+			long t2 = t;
+			while (t2!=1) {
+				t2 = t2*t2 % p;
+				i++;
+			}
+
+			long b = c;
+			for (int j=0 ; j<m-i-1 ; j++) {
+				b = b*b % p;
+			}
+			r = r*b % p;
+			c = b*b % p;
+			t = t*c % p;
+			m = i;
+		}
+
+		return r;
+	}
+
+	/**
+	 * @return A^-1 mod M (A et M premiers entre eux, M < 2^31), par Euclide tendu
+	 */
+	private static long inverse(long a, long m) {
+		long r0 = m;
+		long r1 = a%m;
+		long s0 = 0;
+		long s1 = 1;
+
+		while (r1!=0) {
+			long q = r0/r1;
+			long t = r0 - q*r1;
+			r0 = r1;
+			r1 = t;
+			t = s0 - q*s1;
+			s0 = s1;
+			s1 = t;
+		}
+
+		return (s0<0) ? s0+m : s0;
+	}
+
+	/**
+	 * @return le logarithme nprien de N
+	 */
+	private static double log(BigInteger n) {
+		int shift = Math.max(0, n.bitLength()-1000);
+
+		return Math.log(n.shiftRight(shift).doubleValue()) + shift*Math.log(2);
+	}
+
+	private static int[] grow(int[] array, int count) {
+		return (count<array.length) ? array : Arrays.copyOf(array, 2*array.length);
+	}
+}
@@ -0,0 +1,101 @@
+package algorithms.arithmetic;
+
+import java.util.Arrays;
+
+/**
+ * Table des plus petits facteurs premiers des entiers de 2  N, construite une seule fois
+ * en O(N) par un crible linaire (chaque compos est ray exactement une fois, par son plus petit facteur).
+ *
+ * Seuls les impairs sont stocks (le plus petit facteur d'un pair est 2), et comme le plus petit facteur
+ * d'un compos ne dpasse pas racine de N < 2^16, un char suffit : 0 signifie que le nombre est premier.
+ * La table occupe donc N octets, et la dcomposition complte de tout i <= N cote O(log i) lectures.
+ */
+public class SmallestFactorTable {
+
+	private final int n;
+	/** FACTORS[k] : le plus petit facteur premier de 2k+1 (0 si 2k+1 est premier) */
+	private final char[] factors;
+	/** les nombres premiers impairs jusqu' N */
+	private final int[] primes;
+
+	public SmallestFactorTable(int n) {
+		if (n<0) {
+			throw new IllegalArgumentException("n < 0 : " + n);
+		}
+
+		this.n = n;
+		this.factors = new char[n/2 + 1];
+
+		int[] primes = new int[(int) (1.26*n/Math.log(Math.max(n, 2))) + 16];
+		int count = 0;
+
+		for (int i=3 ; i<=n && i>0 ; i+=2) {
+			int f = factors[i>>1];
+			if (f==0) {
+				primes[count++] = i;
+				f = i;
+			}
+
+			// I*P pour chaque premier P <= lpf(I) : lpf(I*P) = P
+			for (int j=0 ; j<count ; j++) {
+				int p = primes[j];
+				if (p>f || (long) p*i>n) {
+					break;
+				}
+				factors[(p*i)>>1] = (char) p;
+			}
+		}
+
+		this.primes = Arrays.copyOf(primes, count);
+	}
+
+	public int getLimit() {
+		return n;
+	}
+
+	/**
+	 * @return le plus petit facteur premier de I (2 <= I <= N)
+	 */
+	public int smallestFactor(int i) {
+		if ((i&1)==0) {
+			return 2;
+		}
+
+		int f = factors[i>>1];
+		return (f==0) ? i : f;
+	}
+
+	/**
+	 * @return TRUE si I (<= N) est premier
+	 */
+	public boolean isPrime(int i) {
+		if (i<2) {
+			return false;
+		}
+
+		return (i==2) || ((i&1)==1 && factors[i>>1]==0);
+	}
+
+	/**
+	 * @return la dcomposition de I (2 <= I <= N) en facteurs premiers, par ordre croissant (exemple : 12 => [2, 2, 3])
+	 */
+	public int[] factorize(int i) {
+		int[] buffer = new int[32];
+		int count = 0;
+
+		while (i>1) {
+			int f = smallestFactor(i);
+			buffer[count++] = f;
+			i /= f;
+		}
+
+		return Arrays.copyOf(buffer, count);
+	}
+
+	/**
+	 * @return les nombres premiers impairs jusqu' N
+	 */
+	public int[] getOddPrimes() {
+		return primes.clone();
+	}
+}
@@ -0,0 +1,239 @@
+package algorithms.nsga2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * valuation d'une gnration entire en parallle : les individus sont dcoups en lots d'individus conscutifs,
+ * chaque lot est une tche de l'executor qui value ses individus l'un aprs l'autre.
+ *
+ * 		- l'executor : un ForkJoinPool (le pool commun par dfaut) pour des fitnesses qui calculent ; pour des
+ * 		  fitnesses qui attendent (fichiers, processus externes...), Executors.newVirtualThreadPerTaskExecutor()
+ * 		   partir de Java 21, ou Executors.newCachedThreadPool()
+ * 		- BATCH : le nombre d'individus par lot, <= 0 pour BATCHES_PER_THREAD lots par thread
+ * 		- TIMEOUT : une valuation qui dure plus longtemps est interrompue (Thread.interrupt) et l'individu garde
+ * 		  des fitnesses  -1, celles d'un individu non valu, que getFronts range aprs tous les autres.
+ * 		  Une fitness qui ignore l'interruption garde son thread jusqu'au bout, mais son rsultat est perdu.
+ *
+ * Un individu n'est valu qu' partir de ses propres gnes et son rsultat va dans sa propre ligne de la
+ * population : les fitnesses ne dpendent ni du nombre de threads ni de la taille des lots (hors timeouts,
+ * qui dpendent de la machine). Les Fitness et Constraint du gnme doivent seulement pouvoir tre appeles
+ * par plusieurs threads  la fois.
+ */
+public class Evaluator {
+
+	/** nombre de lots par thread quand la taille des lots n'est pas fixe (le cot d'une valuation varie) */
+	private static final int BATCHES_PER_THREAD = 4;
+
+	private final ExecutorService executor;
+	private final int batch;
+	/** en ns, 0 pour aucun */
+	private final long timeout;
+
+	public Evaluator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public Evaluator(ExecutorService executor) {
+		this(executor, 0, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param batch nombre d'individus par tche, <= 0 pour le choisir selon le nombre de threads de l'executor
+	 * @param timeout dure maximale d'une valuation, <= 0 pour aucune
+	 */
+	public Evaluator(ExecutorService executor, int batch, long timeout, TimeUnit unit) {
+		if (executor == null) {
+			throw new IllegalArgumentException("executor : null");
+		}
+
+		this.executor = executor;
+		this.batch = batch;
+		this.timeout = (timeout > 0) ? unit.toNanos(timeout) : 0;
+	}
+
+	/**
+	 * value tous les individus de la population et rend la main quand tous ont leurs fitnesses.
+	 * Une exception d'une fitness (hors interruption par le timeout) est relance une fois tous les lots termins :
+	 * celle du premier lot en chec.
+	 * @return le nombre d'valuations interrompues par le timeout
+	 */
+	public int evaluate(Population population) {
+		int n = population.size();
+		int size = (batch > 0) ? batch : Math.max(1, n / (BATCHES_PER_THREAD*parallelism()));
+
+		// un seul lot sans timeout : sur le thread appelant
+		if (size >= n && timeout == 0) {
+			new Batch(population, 0, n).run();
+			return 0;
+		}
+
+		List<Batch> batches = new ArrayList<>();
+		for (int from=0 ; from<n ; from+=size) {
+			Batch B = new Batch(population, from, Math.min(from+size, n));
+			B.future = executor.submit(B);
+			batches.add(B);
+		}
+
+		try {
+			int timeouts = (timeout > 0) ? watch(batches) : 0;
+
+			for (Batch B : batches) {
+				B.future.get();
+			}
+
+			return timeouts;
+		}
+		catch (InterruptedException e) {
+			for (Batch B : batches) {
+				B.future.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("valuation interrompue", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Surveille les lots jusqu' ce qu'ils soient tous termins, en interrompant les valuations trop longues
+	 * @return le nombre d'valuations interrompues
+	 */
+	private int watch(List<Batch> batches) throws InterruptedException {
+		int timeouts = 0;
+		int first = 0;
+
+		while (true) {
+			while (first < batches.size() && batches.get(first).future.isDone()) {
+				first++;
+			}
+			if (first == batches.size()) {
+				return timeouts;
+			}
+
+			// l'attente s'arrte  la prochaine chance d'un lot en cours
+			long now = System.nanoTime();
+			long wait = timeout;
+			for (int b=first ; b<batches.size() ; b++) {
+				Batch B = batches.get(b);
+				if ( ! B.future.isDone()) {
+					long remaining = B.check(now);
+					if (remaining <= 0) {
+						timeouts++;
+					}
+					else {
+						wait = Math.min(wait, remaining);
+					}
+				}
+			}
+
+			try {
+				batches.get(first).future.get(wait, TimeUnit.NANOSECONDS);
+			}
+			catch (ExecutionException | TimeoutException e) {
+				// l'exception est relance par evaluate, une fois tous les lots termins
+			}
+		}
+	}
+
+	private int parallelism() {
+		if (executor instanceof ForkJoinPool) {
+			return ((ForkJoinPool) executor).getParallelism();
+		}
+
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Les individus [FROM, TO[ d'une population, valus l'un aprs l'autre. L'individu en cours, son dbut et
+	 * son ventuelle interruption sont protgs par le verrou du lot, que prend aussi la surveillance.
+	 */
+	private class Batch implements Runnable {
+
+		private final Population population;
+		private final int from;
+		private final int to;
+
+		private Future<?> future;
+
+		private Thread thread;
+		/** l'individu en cours d'valuation, -1 entre deux */
+		private int current = -1;
+		private long start;
+		private boolean timedOut;
+
+		Batch(Population population, int from, int to) {
+			this.population = population;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void run() {
+			double[] evaluation = new double[population.getEvaluationSize()];
+
+			for (int i=from ; i<to ; i++) {
+				synchronized (this) {
+					thread = Thread.currentThread();
+					current = i;
+					start = System.nanoTime();
+					timedOut = false;
+				}
+
+				RuntimeException failure = null;
+				try {
+					population.evaluate(i, evaluation);
+				}
+				catch (RuntimeException e) {
+					failure = e;
+				}
+
+				synchronized (this) {
+					// une interruption arrive aprs la fin de l'valuation ne doit pas toucher la suivante
+					Thread.interrupted();
+					current = -1;
+
+					if (timedOut) {
+						continue;
+					}
+					if (failure != null) {
+						throw failure;
+					}
+					population.setEvaluation(i, evaluation);
+				}
+			}
+		}
+
+		/**
+		 * Interrompt l'valuation en cours si elle a commenc depuis plus de TIMEOUT
+		 * @return le temps qui lui reste, <= 0 si elle vient d'tre interrompue
+		 */
+		synchronized long check(long now) {
+			if (current < 0 || timedOut) {
+				return timeout;
+			}
+
+			long remaining = start + timeout - now;
+			if (remaining <= 0) {
+				timedOut = true;
+				population.invalidate(current);
+				thread.interrupt();
+			}
+
+			return remaining;
+		}
+	}
+}
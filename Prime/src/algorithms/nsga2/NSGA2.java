@@ -1,18 +1,14 @@
 package algorithms.nsga2;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.DoubleToLongFunction;
 
 import algorithms.nsga2.genes.BigIntegerGene;
 import algorithms.nsga2.genes.DoubleGene;
-import algorithms.nsga2.genes.Gene;
 import algorithms.nsga2.genes.IntegerGene;
 
 public class NSGA2 {
@@ -45,21 +41,33 @@ public class NSGA2 {
 	/**
 	 * Population parente
 	 */
-	public List<Individual> P;
+	public Population P;
 	/**
 	 * Descendance
 	 */
-	public List<Individual> Q;
+	public Population Q;
 	/**
 	 * Le gnme, compos des types de gnes et des fitnesses
 	 */
 	public Map<String, Map> genome;
 	
+	private final Random random;
+	/**
+	 * value P  la gense puis chaque descendance
+	 */
+	private final Evaluator evaluator;
+	
 	public NSGA2(Map<String, Map> genome) {
+		this(genome, new Evaluator());
+	}
+	
+	public NSGA2(Map<String, Map> genome, Evaluator evaluator) {
 
-		this.P = new ArrayList<>();
-		this.Q = new ArrayList<>();
 		this.genome = new HashMap<>(genome);
+		this.P = new Population(this.genome, 2*N);
+		this.Q = new Population(this.genome, 2*N);
+		this.random = new Random();
+		this.evaluator = evaluator;
 	}
 	
 	/**
@@ -68,11 +76,10 @@ public class NSGA2 {
 	protected void genesis() {
 		
 		for (int i=0 ; i<N ; i++) {
-			Individual individual = new Individual(genome);
-			individual.generateRandomGenes();
-			
-			P.add(individual);
+			P.randomize(P.add());
 		}
+		
+		evaluator.evaluate(P);
 	}
 	
 	public void run() {
@@ -88,217 +95,165 @@ public class NSGA2 {
 			System.out.println();
 			
 			// cration de R = P U Q
-			List<Individual> R = new ArrayList<>();
+			Population R = new Population(genome, P.size()+Q.size());
 			R.addAll(P);
 			R.addAll(Q);
 			
 			// suppression des doublons dans R tant que R.size >= N
-			Map<String, Gene> genes = genome.get("GENES");
-			for (int a=0 ; a<R.size() && R.size()>N ; a++) {
-				Individual A = R.get(a);
-				
-				for (int b=a+1 ; b<R.size() && R.size()>N ; b++) {
-					Individual B = R.get(b);
-					
-					if ( ! A.equals(B)) {
-						boolean isClone = true;
-						for (Map.Entry<String, Gene> gene : genes.entrySet()) {
-							String K = gene.getKey();
-							Gene gA = A.genes.get(K);
-							Gene gB = B.genes.get(K);
-							
-							if ( ! gA.isEqualTo(gB)) {
-								isClone = false;
-								break;
-							}
-						}
-						
-						if (isClone) {
-							R.remove(b);
-							b--;
-						}
-					}
-				}
-			}
+			removeClones(R);
 			
 			// clear des deux populations
 			P.clear();
 			Q.clear();
 			
 			// cration des fronts de Pareto
-			Map<Integer, List> F = getFronts(R);
+			int[][] F = getFronts(R);
 			
 			// ajout d'autant de front entier que possible
 			int f = 0;
-			while (P.size()+F.get(f).size() < N) {
-				P.addAll(F.get(f));
+			while (f < F.length && P.size()+F[f].length < N) {
+				P.addAll(R, F[f]);
 				f++;
 			}
 			
 			// si un front doit tre divis
-			if (P.size() < N) {
-				P.addAll(crowdingDistanceSelection(F.get(f), (N-P.size())));
+			if (P.size() < N && f < F.length) {
+				P.addAll(R, crowdingDistanceSelection(R, F[f], (N-P.size())));
 			}
 			
 			// cration de la descendance
-			Q.addAll(getOffspring(P));
+			getOffspring(P, Q);
 			
 			// calcul de leurs fitnesses
-			for (Individual q : Q) {
-				q.evaluate();
-			}
+			evaluator.evaluate(Q);
 		}
 	}
 	
 	/**
-	 *  partir d'une population R, range les individus des meilleurs au moins performants (selon leur fitness)
+	 * supprime de R les clones (individus aux gnes identiques) tant que R compte plus de N individus
 	 */
-	protected Map<Integer, List> getFronts(List<Individual> R) {
-		Map<Integer, List> F = new HashMap<>();
-		int i = 0;
-
-		// jusqu' ce que R soit vide
-		while ( ! R.isEmpty()) {
-			List<Individual> L = new ArrayList<>();
-			
-			// comparaison de chaque individu entre eux
-			for (int a=0 ; a<R.size() ; a++) {
-				Individual A = R.get(a);
-				
-				// ajout de A dans la liste L
-				L.add(A);
-				for (int b=0 ; b<R.size() ; b++) {
-					Individual B = R.get(b);
-					if ( ! A.equals(B)) {						
-						// si B est meilleur ou gal  A, on retire A de la liste L
-						if (B.compareTo(A) > 0) {
-							L.remove(A);
-						}
-					}
-				}
+	protected void removeClones(Population R) {
+		boolean[] removed = new boolean[R.size()];
+		int size = R.size();
+		
+		for (int a=0 ; a<R.size() && size>N ; a++) {
+			if (removed[a]) {
+				continue;
 			}
 			
-			if (L.isEmpty()) {
-				L.addAll(R);
+			for (int b=a+1 ; b<R.size() && size>N ; b++) {
+				if ( ! removed[b] && R.isClone(a, b)) {
+					removed[b] = true;
+					size--;
+				}
 			}
-			
-			// on retire les individus de L de la liste R et on ajoute L  uin nouveau front
-			R.removeAll(L);
-			F.put(i, L);
-			i++;
 		}
 		
-		return F;
+		R.retain(removed);
 	}
 	
 	/**
-	 * @return la liste des individus de L les plus isols
+	 *  partir d'une population R, range les individus des meilleurs au moins performants (selon leur fitness) :
+	 * les fronts de Pareto de Population.compare, par NonDominatedSorting sur les fitnesses de R (une fitness ngative,
+	 * contrainte, devient +Infini). Chaque front donne les indices de ses individus dans R, par ordre croissant
 	 */
-	protected List<Individual> crowdingDistanceSelection(List<Individual> L, int n) {
-		// calcule du coefficient de surpeuplement
-		for (Individual individual : L) {
-			individual.computeCrowdingDistance(L);
+	protected int[][] getFronts(Population R) {
+		int n = R.size();
+		int m = R.getObjectiveCount();
+		double[] fitnesses = R.getObjectives();
+
+		double[] objectives = new double[n*m];
+		boolean[] infeasible = new boolean[n];
+		for (int i=0 ; i<n ; i++) {
+			for (int j=i*m ; j<(i+1)*m ; j++) {
+				objectives[j] = (fitnesses[j] < 0) ? Double.POSITIVE_INFINITY : fitnesses[j];
+			}
+			infeasible[i] = R.countTrigeringConstraints(i) > 0;
 		}
+
+		return NonDominatedSorting.fronts(NonDominatedSorting.efficientNonDominatedSort(objectives, n, m, infeasible));
+	}
+	
+	/**
+	 * @return les indices des N individus de L (un front de R) les plus isols
+	 */
+	protected int[] crowdingDistanceSelection(Population R, int[] L, int n) {
+		// calcule du coefficient de surpeuplement
+		R.computeCrowdingDistance(L);
 		
-		Collections.sort(L, new Comparator<Individual>() {
-			@Override
-			public int compare(Individual bob, Individual roger) {
-				// Bob et Roger sont aussi isols
-				if (bob.crowdingDistance - roger.crowdingDistance <= Double.MIN_NORMAL) {
-					return 0;
-				}
-				// Bob est le plus isol
-				else if (bob.crowdingDistance - roger.crowdingDistance > Double.MIN_NORMAL) {
-					return 1;
-				}
-				// sinon c'est Roger le plus isol
-				else {
-					return -1;
-				}
-			}
-		});
+		// tri par distance dcroissante, stable
+		int[] sorted = R.sortByCrowdingDistance(L);
 		
 		// puis on renvoie les premiers
-		 return L.subList(0, n);
+		return Arrays.copyOf(sorted, n);
 	}
 	
-	protected List<Individual> getOffspring(List<Individual> P) {
-		Random R = new Random();
-		List<Individual> Q = new ArrayList<>();
+	/**
+	 * Remplit Q (vide) de N enfants non valus des individus de P
+	 */
+	protected void getOffspring(Population P, Population Q) {
+		Q.clear();
 		
 		while (Q.size() < N) {
 			// slection de 2 parents
-			Individual[] parents = getTwoParents(P);
-
-			Individual A = parents[0];
-			Individual B = parents[1];
-			Individual C = new Individual(genome);
-			Individual D = new Individual(genome);
-
-			Map<String, Gene> genes = genome.get("GENES");
-			for (Map.Entry<String, Gene> gene : genes.entrySet()) {
-				String K = gene.getKey();
-				Gene gA = A.genes.get(K);
-				Gene gB = B.genes.get(K);
-				Gene[] twoGenes = gene.getValue().crossover(gA, gB);
-
-				Gene gC = twoGenes[0];
-				if (R.nextDouble() <= pM) {
-					gC.mutate();
-				}
-				Gene gD = twoGenes[1];
-				if (R.nextDouble() <= pM) {
-					gD.mutate();
-				}
+			int[] parents = getTwoParents(P);
 
-				C.genes.put(K, gC);
-				D.genes.put(K, gD);
-			}
-			
-			Q.add(C);
-			Q.add(D);
+			int C = Q.add();
+			int D = Q.add();
+			Q.crossover(P, parents[0], parents[1], C, D, random);
 		}
-		
-		return Q;
 	}
 	
-	protected Individual[] getTwoParents(List<Individual> P) {
-		List<Individual> L = new ArrayList<>();
-		List<Individual> pool = new ArrayList<>();
-		Random rand = new Random();
-		
-		// copie de P
-		L.addAll(P);
+	/**
+	 * Tournoi : TAU individus tirs au hasard dans P s'affrontent 2 par 2 jusqu' ce qu'il n'en reste que 2
+	 * @return les indices des deux parents
+	 */
+	protected int[] getTwoParents(Population P) {
+		int size = Math.min(TAU, P.size());
+		int[] pool = new int[size];
 		
-		// premire chose, slection de T individus alatoirement dans L
-		while (pool.size() < TAU) {
-			int r = rand.nextInt(L.size());
-			pool.add(L.remove(r));
+		// premire chose, slection de T individus distincts alatoirement dans P (Floyd)
+		int picked = 0;
+		for (int j=P.size()-size ; j<P.size() ; j++) {
+			int r = random.nextInt(j+1);
+			pool[picked++] = contains(pool, picked-1, r) ? j : r;
 		}
 		
 		// puis confrontation des individus 2 par 2 jusqu' ce qu'il n'en reste que 2
-		while (pool.size() > 2) {
-			for (int a=0, b=1 ; a<pool.size() ; a++, b=a+1) {
-				Individual A = pool.get(a);
-				Individual B = pool.get(b);
+		while (size > 2) {
+			int winners = 0;
+			for (int a=0 ; a+1<size ; a+=2) {
+				int A = pool[a];
+				int B = pool[a+1];
+				int C = Population.compare(P, A, P, B);
 				
-				if (A.compareTo(B) > 0) {
-					pool.remove(B);
+				if (C > 0) {
+					pool[winners++] = A;
 				}
-				else if (A.compareTo(B) < 0) {
-					pool.remove(A);
+				else if (C < 0) {
+					pool[winners++] = B;
 				}
 				else {
-					if (rand.nextBoolean()) {
-						pool.remove(A);
-					}
-					else {
-						pool.remove(B);
-					}
+					pool[winners++] = random.nextBoolean() ? A : B;
 				}
 			}
+			// un nombre impair : le dernier passe sans combattre
+			if ((size & 1) == 1) {
+				pool[winners++] = pool[size-1];
+			}
+			size = winners;
+		}
+		
+		return (size == 2) ? new int[]{pool[0], pool[1]} : new int[]{pool[0], pool[0]};
+	}
+	
+	private static boolean contains(int[] array, int size, int value) {
+		for (int i=0 ; i<size ; i++) {
+			if (array[i] == value) {
+				return true;
+			}
 		}
 		
-		return pool.toArray(new Individual[0]);
+		return false;
 	}
 }
@@ -0,0 +1,276 @@
+package algorithms.nsga2;
+
+import java.util.Arrays;
+
+/**
+ * Tri non domin sur des objectifs primitifs : OBJECTIVES[i*M + j] est l'objectif j de l'individu i (0 <= i < N),
+ *  minimiser.
+ * A domine B si A n'est pire sur aucun objectif et meilleur sur au moins un ; un individu INFEASIBLE est domin par
+ * tous les autres et ne domine personne (c'est la rgle d'Individual.compareTo, o une fitness ngative devient
+ * +Infini, voir NSGA2.getFronts).
+ *
+ * Deux algorithmes, qui rendent le mme rang (le numro du front, 0 pour les non domins) :
+ * 		- fastNonDominatedSort : le tri de Deb, O(M N^2) comparaisons et la liste des domins de chaque individu
+ * 		- efficientNonDominatedSort : ENS-BS (Zhang et al.), les individus tris lexicographiquement ne peuvent tre
+ * 		  domins que par ceux qui les prcdent ; le front de chacun est trouv par dichotomie sur les fronts dj
+ * 		  construits, O(M N racine(N)) en moyenne et O(N) de mmoire
+ */
+public class NonDominatedSorting {
+
+	private NonDominatedSorting() {
+
+	}
+
+	/**
+	 * @return TRUE si A domine B
+	 */
+	public static boolean dominates(double[] objectives, int m, int a, int b) {
+		boolean better = false;
+
+		for (int j=0, ia=a*m, ib=b*m ; j<m ; j++, ia++, ib++) {
+			if (objectives[ia]>objectives[ib]) {
+				return false;
+			}
+			if (objectives[ia]<objectives[ib]) {
+				better = true;
+			}
+		}
+
+		return better;
+	}
+
+	/**
+	 * Le tri de Deb : chaque individu connat ceux qu'il domine et le nombre de ceux qui le dominent ;
+	 * un front est fait des individus dont ce nombre tombe  0 quand on retire le front prcdent.
+	 * @param infeasible les individus qui violent une contrainte (null si aucun)
+	 * @return RANKS[i] : le front de l'individu i
+	 */
+	public static int[] fastNonDominatedSort(double[] objectives, int n, int m, boolean[] infeasible) {
+		int[] feasible = feasible(n, infeasible);
+		int size = feasible.length;
+
+		int[][] dominated = new int[size][];
+		int[] dominatedCount = new int[size];
+		int[] dominators = new int[size];
+
+		for (int a=0 ; a<size ; a++) {
+			for (int b=a+1 ; b<size ; b++) {
+				if (dominates(objectives, m, feasible[a], feasible[b])) {
+					dominated[a] = add(dominated[a], dominatedCount[a]++, b);
+					dominators[b]++;
+				}
+				else if (dominates(objectives, m, feasible[b], feasible[a])) {
+					dominated[b] = add(dominated[b], dominatedCount[b]++, a);
+					dominators[a]++;
+				}
+			}
+		}
+
+		int[] ranks = new int[n];
+		int[] front = new int[size];
+		int frontSize = 0;
+		for (int a=0 ; a<size ; a++) {
+			if (dominators[a]==0) {
+				front[frontSize++] = a;
+			}
+		}
+
+		int rank = 0;
+		int[] next = new int[size];
+		while (frontSize>0) {
+			int nextSize = 0;
+			for (int f=0 ; f<frontSize ; f++) {
+				int a = front[f];
+				ranks[feasible[a]] = rank;
+				for (int k=0 ; k<dominatedCount[a] ; k++) {
+					int b = dominated[a][k];
+					if (--dominators[b]==0) {
+						next[nextSize++] = b;
+					}
+				}
+			}
+
+			int[] swap = front;
+			front = next;
+			next = swap;
+			frontSize = nextSize;
+			rank++;
+		}
+
+		rankInfeasible(ranks, infeasible, rank);
+
+		return ranks;
+	}
+
+	/**
+	 * ENS-BS : parcours dans l'ordre lexicographique, chaque individu va dans le premier front dont aucun membre
+	 * ne le domine. Si un membre du front k le domine, un membre de chaque front prcdent aussi : la recherche
+	 * se fait par dichotomie.
+	 * @param infeasible les individus qui violent une contrainte (null si aucun)
+	 * @return RANKS[i] : le front de l'individu i
+	 */
+	public static int[] efficientNonDominatedSort(double[] objectives, int n, int m, boolean[] infeasible) {
+		int[] order = feasible(n, infeasible);
+		int size = order.length;
+
+		sortLexicographically(objectives, m, order);
+
+		// FRONTS[k] : les membres du front k, dans l'ordre o ils y sont entrs
+		int[][] fronts = new int[Math.max(size, 1)][];
+		int[] frontSizes = new int[Math.max(size, 1)];
+		int count = 0;
+		int[] ranks = new int[n];
+
+		for (int s=0 ; s<size ; s++) {
+			int i = order[s];
+
+			int low = 0;
+			int high = count;
+			while (low<high) {
+				int mid = (low+high) >>> 1;
+				if (isDominatedBy(objectives, m, i, fronts[mid], frontSizes[mid])) {
+					low = mid+1;
+				}
+				else {
+					high = mid;
+				}
+			}
+
+			if (low==count) {
+				fronts[count] = new int[4];
+				count++;
+			}
+			fronts[low] = add(fronts[low], frontSizes[low]++, i);
+			ranks[i] = low;
+		}
+
+		rankInfeasible(ranks, infeasible, count);
+
+		return ranks;
+	}
+
+	/**
+	 * @return les indices des individus de chaque front, par ordre croissant : FRONTS[k] pour le rang k
+	 */
+	public static int[][] fronts(int[] ranks) {
+		int count = 0;
+		for (int rank : ranks) {
+			count = Math.max(count, rank+1);
+		}
+
+		int[] sizes = new int[count];
+		for (int rank : ranks) {
+			sizes[rank]++;
+		}
+
+		int[][] fronts = new int[count][];
+		for (int k=0 ; k<count ; k++) {
+			fronts[k] = new int[sizes[k]];
+			sizes[k] = 0;
+		}
+		for (int i=0 ; i<ranks.length ; i++) {
+			fronts[ranks[i]][sizes[ranks[i]]++] = i;
+		}
+
+		return fronts;
+	}
+
+	/**
+	 * @return TRUE si un des SIZE premiers membres de FRONT domine I ; les derniers entrs, les plus proches de I
+	 * dans l'ordre lexicographique, sont essays en premier
+	 */
+	private static boolean isDominatedBy(double[] objectives, int m, int i, int[] front, int size) {
+		for (int f=size-1 ; f>=0 ; f--) {
+			if (dominates(objectives, m, front[f], i)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return les indices des individus qui ne violent aucune contrainte
+	 */
+	private static int[] feasible(int n, boolean[] infeasible) {
+		int[] feasible = new int[n];
+		int size = 0;
+
+		for (int i=0 ; i<n ; i++) {
+			if (infeasible==null || ! infeasible[i]) {
+				feasible[size++] = i;
+			}
+		}
+
+		return (size==n) ? feasible : Arrays.copyOf(feasible, size);
+	}
+
+	/**
+	 * Les individus contraints forment un seul front, aprs ceux des individus ralisables
+	 */
+	private static void rankInfeasible(int[] ranks, boolean[] infeasible, int rank) {
+		if (infeasible==null) {
+			return;
+		}
+
+		for (int i=0 ; i<ranks.length ; i++) {
+			if (infeasible[i]) {
+				ranks[i] = rank;
+			}
+		}
+	}
+
+	/**
+	 * Trie les indices ORDER par ordre lexicographique de leurs objectifs (tri fusion, stable)
+	 */
+	private static void sortLexicographically(double[] objectives, int m, int[] order) {
+		int[] buffer = new int[order.length];
+
+		for (int width=1 ; width<order.length ; width<<=1) {
+			for (int low=0 ; low<order.length-width ; low+=2*width) {
+				int mid = low+width;
+				int high = Math.min(low+2*width, order.length);
+				int i = low;
+				int j = mid;
+				int k = low;
+
+				while (i<mid && j<high) {
+					buffer[k++] = (compare(objectives, m, order[j], order[i])<0) ? order[j++] : order[i++];
+				}
+				while (i<mid) {
+					buffer[k++] = order[i++];
+				}
+				while (j<high) {
+					buffer[k++] = order[j++];
+				}
+				System.arraycopy(buffer, low, order, low, high-low);
+			}
+		}
+	}
+
+	private static int compare(double[] objectives, int m, int a, int b) {
+		for (int j=0, ia=a*m, ib=b*m ; j<m ; j++, ia++, ib++) {
+			// pas de Double.compare : -0.0 et 0.0 sont gaux, comme pour la dominance
+			if (objectives[ia]<objectives[ib]) {
+				return -1;
+			}
+			if (objectives[ia]>objectives[ib]) {
+				return 1;
+			}
+		}
+
+		return 0;
+	}
+
+	private static int[] add(int[] array, int size, int value) {
+		if (array==null) {
+			array = new int[4];
+		}
+		else if (size==array.length) {
+			array = Arrays.copyOf(array, 2*size);
+		}
+		array[size] = value;
+
+		return array;
+	}
+}
@@ -0,0 +1,570 @@
+package algorithms.nsga2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import algorithms.nsga2.genes.Gene;
+import algorithms.nsga2.genes.NumericGene;
+
+/**
+ * Une population range par colonnes : l'individu i n'est qu'un numro de ligne dans des matrices contigus,
+ * - VARIABLES[i*G + k] : la valeur du gne k (les NumericGene ; les autres gnes restent des objets dans OTHERS)
+ * - OBJECTIVES[i*M + j] : la fitness j (-1 tant que l'individu n'est pas valu, ngative si elle est contrainte)
+ * - VIOLATIONS[i*C + l] : 1 si la contrainte l est viole, 0 sinon
+ * - CROWDING[i] : la distance d'isolement
+ *
+ * L'ordre des gnes, des fitnesses et des contraintes est celui des Map du gnome : deux populations
+ * du mme gnome ont les mmes colonnes. Les Gene ne sont recrs que pour les oprateurs (croisement, mutation)
+ * et pour l'valuation, puisque Fitness et Constraint les reoivent dans une Map.
+ */
+public class Population {
+
+	private final Map<String, Map> genome;
+	private final String[] geneKeys;
+	private final String[] fitnessKeys;
+	private final String[] constraintKeys;
+	/** les gnes du gnome, modles des copies */
+	private final Gene[] templates;
+	private final Fitness[] fitnesses;
+	private final Constraint[] constraints;
+	/** NUMERIC[k] : le gne k est rang dans VARIABLES */
+	private final boolean[] numeric;
+	/** nombres de gnes, de fitnesses et de contraintes */
+	private final int g;
+	private final int m;
+	private final int c;
+
+	private double[] variables;
+	/** les gnes qui ne sont pas des NumericGene (null si tous le sont) */
+	private Gene[] others;
+	private double[] objectives;
+	private double[] violations;
+	private double[] crowding;
+	private int size;
+
+	public Population(Map<String, Map> genome) {
+		this(genome, NSGA2.N);
+	}
+
+	public Population(Map<String, Map> genome, int capacity) {
+		Map<String, Gene> genes = genome.get("GENES");
+		Map<String, Fitness> fitnesses = genome.get("FITNESSES");
+		Map<String, Constraint> constraints = genome.get("CONSTRAINTS");
+
+		this.genome = genome;
+		this.geneKeys = genes.keySet().toArray(new String[0]);
+		this.fitnessKeys = fitnesses.keySet().toArray(new String[0]);
+		this.constraintKeys = constraints.keySet().toArray(new String[0]);
+		this.g = geneKeys.length;
+		this.m = fitnessKeys.length;
+		this.c = constraintKeys.length;
+
+		this.templates = new Gene[g];
+		this.numeric = new boolean[g];
+		boolean allNumeric = true;
+		for (int k=0 ; k<g ; k++) {
+			templates[k] = genes.get(geneKeys[k]);
+			numeric[k] = templates[k] instanceof NumericGene;
+			allNumeric &= numeric[k];
+		}
+
+		this.fitnesses = new Fitness[m];
+		for (int j=0 ; j<m ; j++) {
+			this.fitnesses[j] = fitnesses.get(fitnessKeys[j]);
+		}
+		this.constraints = new Constraint[c];
+		for (int l=0 ; l<c ; l++) {
+			this.constraints[l] = constraints.get(constraintKeys[l]);
+		}
+
+		capacity = Math.max(capacity, 1);
+		this.variables = new double[capacity*g];
+		this.others = allNumeric ? null : new Gene[capacity*g];
+		this.objectives = new double[capacity*m];
+		this.violations = new double[capacity*c];
+		this.crowding = new double[capacity];
+		this.size = 0;
+	}
+
+	public Map<String, Map> getGenome() {
+		return genome;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size==0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/** @return le nombre de fitnesses (colonnes de getObjectives) */
+	public int getObjectiveCount() {
+		return m;
+	}
+
+	/**
+	 * @return la matrice des fitnesses, individu par individu (seules les size()*M premires cases comptent)
+	 */
+	public double[] getObjectives() {
+		return objectives;
+	}
+
+	/**
+	 * @return une vue sur l'individu I, valable tant que la population n'est ni vide ni compacte
+	 */
+	public Individual get(int i) {
+		return new Individual(this, i);
+	}
+
+	/**
+	 * Ajoute un individu aux gnes du gnome, non valu
+	 * @return son indice
+	 */
+	public int add() {
+		int i = grow();
+
+		for (int k=0 ; k<g ; k++) {
+			setGene(i, k, templates[k]);
+		}
+		Arrays.fill(objectives, i*m, (i+1)*m, -1);
+		Arrays.fill(violations, i*c, (i+1)*c, 0);
+		crowding[i] = 0;
+
+		return i;
+	}
+
+	/**
+	 * Ajoute une copie de l'individu I de FROM (une population du mme gnome)
+	 * @return son indice
+	 */
+	public int add(Population from, int i) {
+		int j = grow();
+
+		System.arraycopy(from.variables, i*g, variables, j*g, g);
+		if (others!=null) {
+			System.arraycopy(from.others, i*g, others, j*g, g);
+		}
+		System.arraycopy(from.objectives, i*m, objectives, j*m, m);
+		System.arraycopy(from.violations, i*c, violations, j*c, c);
+		crowding[j] = from.crowding[i];
+
+		return j;
+	}
+
+	public void addAll(Population from) {
+		for (int i=0 ; i<from.size ; i++) {
+			add(from, i);
+		}
+	}
+
+	public void addAll(Population from, int[] indices) {
+		for (int i : indices) {
+			add(from, i);
+		}
+	}
+
+	/**
+	 * Retire les individus I tels que REMOVED[i], en gardant l'ordre des autres
+	 */
+	public void retain(boolean[] removed) {
+		int j = 0;
+
+		for (int i=0 ; i<size ; i++) {
+			if ( ! removed[i]) {
+				if (i!=j) {
+					System.arraycopy(variables, i*g, variables, j*g, g);
+					if (others!=null) {
+						System.arraycopy(others, i*g, others, j*g, g);
+					}
+					System.arraycopy(objectives, i*m, objectives, j*m, m);
+					System.arraycopy(violations, i*c, violations, j*c, c);
+					crowding[j] = crowding[i];
+				}
+				j++;
+			}
+		}
+
+		if (others!=null) {
+			Arrays.fill(others, j*g, size*g, null);
+		}
+		size = j;
+	}
+
+	/**
+	 * @return une copie du gne K de l'individu I
+	 */
+	public Gene getGene(int i, int k) {
+		if (numeric[k]) {
+			NumericGene gene = (NumericGene) templates[k].copy();
+			gene.setValue(variables[i*g+k]);
+			return gene;
+		}
+
+		return others[i*g+k].copy();
+	}
+
+	/**
+	 * Range GENE (du mme type que le gne K du gnome) comme gne K de l'individu I
+	 */
+	public void setGene(int i, int k, Gene gene) {
+		if (numeric[k]) {
+			variables[i*g+k] = ((NumericGene) gene).getValue();
+		}
+		else {
+			others[i*g+k] = gene.copy();
+		}
+	}
+
+	/**
+	 * @return les gnes de l'individu I, copis dans une Map comme celle du gnome
+	 */
+	public Map<String, Gene> getGenes(int i) {
+		Map<String, Gene> genes = new HashMap<>();
+
+		for (int k=0 ; k<g ; k++) {
+			genes.put(geneKeys[k], getGene(i, k));
+		}
+
+		return genes;
+	}
+
+	/**
+	 * Tire au hasard les gnes de l'individu I
+	 */
+	public void randomize(int i) {
+		for (int k=0 ; k<g ; k++) {
+			Gene gene = templates[k].copy();
+			gene.randomize();
+			setGene(i, k, gene);
+		}
+	}
+
+	/**
+	 * Remplace les gnes de l'individu I par le croisement de ceux de A et de B, puis les mute avec
+	 * une probabilit pM chacun ; J reoit le second enfant
+	 */
+	void crossover(Population from, int a, int b, int i, int j, Random random) {
+		for (int k=0 ; k<g ; k++) {
+			Gene[] twoGenes = templates[k].crossover(from.getGene(a, k), from.getGene(b, k));
+
+			if (random.nextDouble() <= NSGA2.pM) {
+				twoGenes[0].mutate();
+			}
+			if (random.nextDouble() <= NSGA2.pM) {
+				twoGenes[1].mutate();
+			}
+
+			setGene(i, k, twoGenes[0]);
+			setGene(j, k, twoGenes[1]);
+		}
+	}
+
+	/**
+	 * Calcule les fitnesses et value les contraintes de l'individu I
+	 */
+	public void evaluate(int i) {
+		double[] evaluation = new double[m+c];
+
+		evaluate(i, evaluation);
+		setEvaluation(i, evaluation);
+	}
+
+	/**
+	 * Calcule les fitnesses (EVALUATION[0, M[) et les contraintes (EVALUATION[M, M+C[) de l'individu I sans
+	 * toucher  la population : plusieurs threads peuvent valuer des individus diffrents en mme temps
+	 */
+	void evaluate(int i, double[] evaluation) {
+		Map<String, Gene> genes = getGenes(i);
+
+		for (int j=0 ; j<m ; j++) {
+			evaluation[j] = fitnesses[j].compute(genes);
+		}
+		for (int l=0 ; l<c ; l++) {
+			evaluation[m+l] = constraints[l].isTriggered(genes) ? 1 : 0;
+		}
+	}
+
+	/**
+	 * Range l'EVALUATION calcule par evaluate(I, EVALUATION)
+	 */
+	void setEvaluation(int i, double[] evaluation) {
+		System.arraycopy(evaluation, 0, objectives, i*m, m);
+		System.arraycopy(evaluation, m, violations, i*c, c);
+	}
+
+	/**
+	 * L'individu I n'a pas pu tre valu : ses fitnesses valent -1, comme celles d'un individu jamais valu
+	 */
+	void invalidate(int i) {
+		Arrays.fill(objectives, i*m, (i+1)*m, -1);
+		Arrays.fill(violations, i*c, (i+1)*c, 0);
+	}
+
+	/** @return la taille du tableau de evaluate(I, EVALUATION) */
+	int getEvaluationSize() {
+		return m+c;
+	}
+
+	/** @return la fitness J de l'individu I */
+	public double getObjective(int i, int j) {
+		return objectives[i*m+j];
+	}
+
+	void setObjective(int i, int j, double value) {
+		objectives[i*m+j] = value;
+	}
+
+	/** @return la fitness de cl KEY de l'individu I */
+	public double getFitness(int i, String key) {
+		return objectives[i*m + indexOf(fitnessKeys, key)];
+	}
+
+	/** @return TRUE si l'individu I viole la contrainte de cl KEY */
+	public boolean isTriggered(int i, String key) {
+		return violations[i*c + indexOf(constraintKeys, key)] > 0;
+	}
+
+	/**
+	 * @return le nombre de contraintes violes par l'individu I
+	 */
+	public int countTrigeringConstraints(int i) {
+		int counter = 0;
+
+		for (int l=i*c ; l<(i+1)*c ; l++) {
+			if (violations[l] > 0) {
+				counter++;
+			}
+		}
+
+		return counter;
+	}
+
+	public double getCrowdingDistance(int i) {
+		return crowding[i];
+	}
+
+	void setCrowdingDistance(int i, double distance) {
+		crowding[i] = distance;
+	}
+
+	/**
+	 * Distance d'isolement (crowding distance de Deb) des individus de FRONT : pour chaque fitness, l'cart entre
+	 * les deux voisins de l'individu dans le front tri sur cette fitness, rapport  l'tendue du front.
+	 * Les extrmes de chaque fitness sont infiniment isols.
+	 */
+	public void computeCrowdingDistance(int[] front) {
+		for (int i : front) {
+			crowding[i] = 0;
+		}
+		if (front.length < 3) {
+			for (int i : front) {
+				crowding[i] = Double.POSITIVE_INFINITY;
+			}
+			return;
+		}
+
+		int[] sorted = front.clone();
+		int[] buffer = new int[front.length];
+		int last = front.length-1;
+		for (int j=0 ; j<m ; j++) {
+			sortByObjective(sorted, buffer, j);
+
+			double min = objectives[sorted[0]*m+j];
+			double range = objectives[sorted[last]*m+j] - min;
+			crowding[sorted[0]] = Double.POSITIVE_INFINITY;
+			crowding[sorted[last]] = Double.POSITIVE_INFINITY;
+			if (range <= 0) {
+				continue;
+			}
+
+			for (int s=1 ; s<last ; s++) {
+				crowding[sorted[s]] += (objectives[sorted[s+1]*m+j] - objectives[sorted[s-1]*m+j]) / range;
+			}
+		}
+	}
+
+	/**
+	 * @return les individus de FRONT par distance d'isolement dcroissante (tri stable), les plus isols en tte
+	 */
+	public int[] sortByCrowdingDistance(int[] front) {
+		int[] sorted = front.clone();
+
+		sort(sorted, new int[sorted.length], crowding, 1, 0, true);
+
+		return sorted;
+	}
+
+	/**
+	 * Trie les indices ORDER par fitness J croissante (tri fusion, stable)
+	 */
+	private void sortByObjective(int[] order, int[] buffer, int j) {
+		sort(order, buffer, objectives, m, j, false);
+	}
+
+	/**
+	 * Tri fusion stable des indices ORDER selon VALUES[i*STRIDE + OFFSET], croissant ou DESCENDING
+	 */
+	private static void sort(int[] order, int[] buffer, double[] values, int stride, int offset, boolean descending) {
+		for (int width=1 ; width<order.length ; width<<=1) {
+			for (int low=0 ; low<order.length-width ; low+=2*width) {
+				int mid = low+width;
+				int high = Math.min(low+2*width, order.length);
+				int a = low;
+				int b = mid;
+				int k = low;
+
+				while (a<mid && b<high) {
+					double x = values[order[a]*stride+offset];
+					double y = values[order[b]*stride+offset];
+					buffer[k++] = (descending ? y > x : y < x) ? order[b++] : order[a++];
+				}
+				while (a<mid) {
+					buffer[k++] = order[a++];
+				}
+				while (b<high) {
+					buffer[k++] = order[b++];
+				}
+				System.arraycopy(buffer, low, order, low, high-low);
+			}
+		}
+	}
+
+	/**
+	 * @return TRUE si les individus A et B ont les mmes gnes
+	 */
+	public boolean isClone(int a, int b) {
+		for (int k=0 ; k<g ; k++) {
+			if (numeric[k]) {
+				if (variables[a*g+k]!=variables[b*g+k]) {
+					return false;
+				}
+			}
+			else if ( ! others[a*g+k].isEqualTo(others[b*g+k])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * La dominance d'Individual.compareTo : chaque fitness est  minimiser, une fitness ngative (contrainte)
+	 * est la pire, et un individu qui viole une contrainte est domin par ceux qui n'en violent aucune.
+	 * @return de -2 (B domine strictement A)  2 (A domine strictement B), 0 si aucun ne domine l'autre
+	 */
+	public static int compare(Population P, int a, Population Q, int b) {
+		boolean better = false;
+		boolean equal = false;
+		boolean worst = false;
+
+		for (int j=0 ; j<P.m ; j++) {
+			double mine = P.objectives[a*P.m+j];
+			double its = Q.objectives[b*Q.m+j];
+
+			// si "ma" fitness est contrainte
+			if (mine < 0) {
+				if (its < 0) {
+					equal = true;
+				}
+				else {
+					worst = true;
+				}
+			}
+			// si la "sienne" est contrainte
+			else if (its < 0) {
+				better = true;
+			}
+			// si la "sienne" est meilleure
+			else if (its < mine) {
+				worst = true;
+			}
+			else if (Math.abs(mine-its) <= Double.MIN_VALUE) {
+				equal = true;
+			}
+			else {
+				better = true;
+			}
+		}
+
+		int C = 0;
+		if ( ! better && worst) {
+			C = equal ? -1 : -2;
+		}
+		else if (better && ! worst) {
+			C = equal ? 1 : 2;
+		}
+
+		boolean constrainedA = P.countTrigeringConstraints(a) > 0;
+		boolean constrainedB = Q.countTrigeringConstraints(b) > 0;
+		if (constrainedA || constrainedB) {
+			C = (constrainedA==constrainedB) ? 0 : (constrainedB ? 2 : -2);
+		}
+
+		return C;
+	}
+
+	/**
+	 * @return l'individu I comme l'affichait Individual : ses gnes puis ses fitnesses
+	 */
+	public String toString(int i) {
+		List<String> G = new ArrayList<>();
+		List<String> F = new ArrayList<>();
+
+		for (int k=0 ; k<g ; k++) {
+			G.add("\t" + getGene(i, k).toString());
+		}
+		for (int j=0 ; j<m ; j++) {
+			F.add("\t" + objectives[i*m+j]);
+		}
+
+		return "\n" + G.toString() + "\t" + F.toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+
+		for (int i=0 ; i<size ; i++) {
+			builder.append((i>0) ? ", " : "").append(toString(i));
+		}
+
+		return builder.append("]").toString();
+	}
+
+	/**
+	 * @return l'indice d'une ligne de plus, en agrandissant les matrices si besoin
+	 */
+	private int grow() {
+		if (size==crowding.length) {
+			int capacity = 2*size;
+			variables = Arrays.copyOf(variables, capacity*g);
+			if (others!=null) {
+				others = Arrays.copyOf(others, capacity*g);
+			}
+			objectives = Arrays.copyOf(objectives, capacity*m);
+			violations = Arrays.copyOf(violations, capacity*c);
+			crowding = Arrays.copyOf(crowding, capacity);
+		}
+
+		return size++;
+	}
+
+	private static int indexOf(String[] keys, String key) {
+		for (int i=0 ; i<keys.length ; i++) {
+			if (keys[i].equals(key)) {
+				return i;
+			}
+		}
+
+		throw new IllegalArgumentException("cl inconnue : " + key);
+	}
+}
@@ -4,7 +4,7 @@ import java.util.Random;
 
 import algorithms.nsga2.NSGA2;
 
-public class DoubleGene implements Gene {
+public class DoubleGene implements NumericGene {
 
 	public Double value;
 	public Double upperBound;
@@ -177,6 +177,18 @@ public class DoubleGene implements Gene {
 		}
 	}
 	
+	@Override
+	public double getValue() {
+		
+		return value;
+	}
+	
+	@Override
+	public void setValue(double value) {
+		
+		this.value = value;
+	}
+	
 	@Override
 	public Gene copy() {
 
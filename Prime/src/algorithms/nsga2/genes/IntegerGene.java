@@ -4,7 +4,7 @@ import java.util.Random;
 
 import algorithms.nsga2.NSGA2;
 
-public class IntegerGene implements Gene {
+public class IntegerGene implements NumericGene {
 
 	public Integer value;
 	public Integer upperBound;
@@ -177,6 +177,18 @@ public class IntegerGene implements Gene {
 		}
 	}
 	
+	@Override
+	public double getValue() {
+		
+		return value;
+	}
+	
+	@Override
+	public void setValue(double value) {
+		
+		this.value = (int) value;
+	}
+	
 	@Override
 	public Gene copy() {
 
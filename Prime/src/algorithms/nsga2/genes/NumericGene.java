@@ -0,0 +1,12 @@
+package algorithms.nsga2.genes;
+
+/**
+ * Un gne dont la valeur tient dans un double : Population la range dans sa matrice des variables,
+ * sans garder l'objet
+ */
+public interface NumericGene extends Gene {
+	
+	public double getValue();
+	
+	public void setValue(double value);
+}
@@ -0,0 +1,340 @@
+package algorithms.sieve;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Crible d'Atkin segment, au mme codage que SegmentedSieve (un octet pour 30 nombres, un bit par rsidu
+ * premier avec 30), pour comparer les deux mthodes  galit.
+ *
+ * Un entier n premier avec 60 et sans facteur carr est premier si et seulement si le nombre de solutions
+ * (x, y > 0) de sa forme quadratique est impair :
+ * 		n mod 60 dans {1, 13, 17, 29, 37, 41, 49, 53}		4x^2 + y^2 = n
+ * 		n mod 60 dans {7, 19, 31, 43}						3x^2 + y^2 = n
+ * 		n mod 60 dans {11, 23, 47, 59}						3x^2 - y^2 = n	(x > y)
+ * Comme 4x^2 et 3x^2 modulo 60 ne dpendent que de x mod 30, et y^2 de y mod 30, les tables FORM_* donnent,
+ * pour chaque x mod 30, les y mod 30 qui atteignent une classe utile : seules ces solutions sont numres.
+ *
+ * Pour chaque segment (SEGMENT_BYTES octets), on inverse un bit par solution dans le segment, puis on retire les
+ * multiples des carrs des premiers de base tant que le segment est dans le cache.
+ * 2, 3 et 5 sont  la charge de l'appelant.
+ */
+public class AtkinSieve {
+
+	/** taille par dfaut d'un segment, en octets */
+	public static final int SEGMENT_BYTES = SegmentedSieve.SEGMENT_BYTES;
+	/** FORM_k[X mod 30] : les y mod 30 pour lesquels la forme k donne une classe modulo 60 qui lui revient */
+	private static final int[][] FORM_1 = new int[30][];
+	private static final int[][] FORM_2 = new int[30][];
+	private static final int[][] FORM_3 = new int[30][];
+
+	static {
+		int[] classes1 = {1, 13, 17, 29, 37, 41, 49, 53};
+		int[] classes2 = {7, 19, 31, 43};
+		int[] classes3 = {11, 23, 47, 59};
+
+		for (int x=0 ; x<30 ; x++) {
+			FORM_1[x] = residues(4*x*x, 1, classes1);
+			FORM_2[x] = residues(3*x*x, 1, classes2);
+			FORM_3[x] = residues(3*x*x, -1, classes3);
+		}
+	}
+
+	/**
+	 * @return les Y de [0, 30[ tels que (A + SIGN*Y^2) mod 60 soit dans CLASSES
+	 */
+	private static int[] residues(int a, int sign, int[] classes) {
+		int[] ys = new int[30];
+		int count = 0;
+
+		for (int y=0 ; y<30 ; y++) {
+			int n = ((a + sign*y*y)%60 + 60)%60;
+			for (int c : classes) {
+				if (n==c) {
+					ys[count++] = y;
+				}
+			}
+		}
+
+		return Arrays.copyOf(ys, count);
+	}
+
+	/** la borne suprieure (incluse) des nombres que ce crible peut traiter */
+	private final long limit;
+	/** les premiers de base, de 7  racine de LIMIT */
+	private final int[] primes;
+	/** la taille d'un segment en octets */
+	private final int segmentBytes;
+
+	public AtkinSieve(long limit) {
+		this(limit, SEGMENT_BYTES);
+	}
+
+	public AtkinSieve(long limit, int segmentBytes) {
+		if (limit<0) {
+			throw new IllegalArgumentException("limit < 0 : " + limit);
+		}
+		if (segmentBytes<=0) {
+			throw new IllegalArgumentException("segmentBytes <= 0 : " + segmentBytes);
+		}
+
+		int[] small = SegmentedSieve.smallPrimes((int) SegmentedSieve.isqrt(limit));
+		int first = 0;
+		while (first<small.length && small[first]<7) {
+			first++;
+		}
+
+		this.limit = limit;
+		this.primes = Arrays.copyOfRange(small, first, small.length);
+		this.segmentBytes = segmentBytes;
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	public int getSegmentBytes() {
+		return segmentBytes;
+	}
+
+	/**
+	 * @return un curseur sur les segments couvrant [FROM, TO]
+	 */
+	public Segment segments(long from, long to) {
+		return new Segment(from, to);
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [FROM, TO], par ordre croissant
+	 */
+	public void forEach(long from, long to, LongConsumer action) {
+		for (int p : new int[]{2, 3, 5}) {
+			if (p>=from && p<=to) {
+				action.accept(p);
+			}
+		}
+
+		Segment segment = segments(from, to);
+		while (segment.next()) {
+			segment.forEach(action);
+		}
+	}
+
+	/**
+	 * @return le nombre de nombres premiers dans [FROM, TO]
+	 */
+	public long count(long from, long to) {
+		long count = 0;
+		for (int p : new int[]{2, 3, 5}) {
+			if (p>=from && p<=to) {
+				count++;
+			}
+		}
+
+		Segment segment = segments(from, to);
+		while (segment.next()) {
+			count += segment.count();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Un segment du crible, dplac de proche en proche sur l'intervalle [FROM, TO]
+	 */
+	public class Segment {
+
+		private final long from;
+		private final long to;
+		/** les bits du segment courant : 1 = premier */
+		private final byte[] bits;
+		/** le dbut (multiple de 30) du segment courant */
+		private long low;
+		/** le nombre d'octets utiliss dans le segment courant */
+		private int size;
+
+		protected Segment(long from, long to) {
+			if (to>limit) {
+				throw new IllegalArgumentException("to > limit : " + to + " > " + limit);
+			}
+
+			this.from = Math.max(from, 0);
+			this.to = to;
+			this.bits = new byte[segmentBytes];
+			this.low = this.from - this.from%30;
+			this.size = 0;
+		}
+
+		/**
+		 * Crible le segment suivant
+		 * @return FALSE si l'intervalle est entirement parcouru
+		 */
+		public boolean next() {
+			if (size>0) {
+				low += 30L*size;
+			}
+			if (low>to) {
+				size = 0;
+				return false;
+			}
+
+			size = (int) Math.min(segmentBytes, (to-low)/30 + 1);
+			long high = low + 30L*size;
+			Arrays.fill(bits, 0, size, (byte) 0);
+
+			sumForm(FORM_1, 4, high);
+			sumForm(FORM_2, 3, high);
+			differenceForm(high);
+			removeSquares(high);
+			clip();
+
+			return true;
+		}
+
+		/**
+		 * Inverse le bit de chaque n = A*x^2 + y^2 de [LOW, HIGH[ dont la classe revient  la forme
+		 */
+		private void sumForm(int[][] form, int a, long high) {
+			for (long x=1 ; a*x*x<high ; x++) {
+				long ax2 = a*x*x;
+				long yMin = (ax2>=low) ? 1 : ceilSqrt(low-ax2);
+
+				for (int r : form[(int) (x%30)]) {
+					// le premier y >= yMin congru  R modulo 30
+					long y = yMin + ((r - yMin%30) + 30)%30;
+					for (long n=ax2+y*y ; n<high ; y+=30, n=ax2+y*y) {
+						flip(n);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Inverse le bit de chaque n = 3x^2 - y^2 (x > y) de [LOW, HIGH[ dont la classe revient  la forme
+		 */
+		private void differenceForm(long high) {
+			// pour x, les valeurs vont de 3x^2 - (x-1)^2 = 2x^2 + 2x - 1  3x^2 - 1 : x < racine de LOW/3 ne sert  rien
+			for (long x=Math.max(1, SegmentedSieve.isqrt(low/3)) ; 2*x*x+2*x-1<high ; x++) {
+				long ax2 = 3*x*x;
+				if (ax2-1<low) {
+					continue;
+				}
+
+				// low <= 3x^2 - y^2 < high  <=>  3x^2 - high < y^2 <= 3x^2 - low
+				long yMax = Math.min(x-1, SegmentedSieve.isqrt(ax2-low));
+				long yMin = (ax2>=high) ? SegmentedSieve.isqrt(ax2-high) + 1 : 1;
+
+				for (int r : FORM_3[(int) (x%30)]) {
+					// le plus grand y <= yMax congru  R modulo 30
+					long y = yMax - ((yMax%30 - r) + 30)%30;
+					for ( ; y>=yMin ; y-=30) {
+						flip(ax2-y*y);
+					}
+				}
+			}
+		}
+
+		private void flip(long n) {
+			int offset = (int) (n-low);
+			bits[offset/30] ^= SegmentedSieve.BIT[offset%30];
+		}
+
+		/**
+		 * Efface les multiples des carrs des premiers de base (les nombres avec un facteur carr)
+		 */
+		private void removeSquares(long high) {
+			for (int p : primes) {
+				long q = (long) p*p;
+				if (q>=high) {
+					break;
+				}
+
+				for (long n=Math.max(q, (low+q-1)/q*q) ; n<high ; n+=q) {
+					int offset = (int) (n-low);
+					bits[offset/30] &= ~SegmentedSieve.BIT[offset%30];
+				}
+			}
+		}
+
+		/**
+		 * Efface les bits en dehors de [FROM, TO]
+		 */
+		private void clip() {
+			if (low<from) {
+				int mask = 0;
+				for (int i=0 ; i<SegmentedSieve.RESIDUES.length ; i++) {
+					if (low+SegmentedSieve.RESIDUES[i]<from) {
+						mask |= 1 << i;
+					}
+				}
+				bits[0] &= ~mask;
+			}
+
+			long last = low + 30L*(size-1);
+			if (last+29>to) {
+				int mask = 0;
+				for (int i=0 ; i<SegmentedSieve.RESIDUES.length ; i++) {
+					if (last+SegmentedSieve.RESIDUES[i]>to) {
+						mask |= 1 << i;
+					}
+				}
+				bits[size-1] &= ~mask;
+			}
+		}
+
+		/**
+		 * @return le dbut (multiple de 30) du segment courant
+		 */
+		public long low() {
+			return low;
+		}
+
+		/**
+		 * @return le nombre d'octets utiliss dans le segment courant
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return les bits du segment courant (l'octet J reprsente [LOW + 30*J, LOW + 30*J + 30[)
+		 */
+		public byte[] bits() {
+			return bits;
+		}
+
+		/**
+		 * Applique ACTION  chaque nombre premier du segment courant, par ordre croissant
+		 */
+		public void forEach(LongConsumer action) {
+			long base = low;
+			for (int j=0 ; j<size ; j++, base+=30) {
+				int b = bits[j] & 0xFF;
+				while (b!=0) {
+					action.accept(base + SegmentedSieve.RESIDUES[Integer.numberOfTrailingZeros(b)]);
+					b &= b-1;
+				}
+			}
+		}
+
+		/**
+		 * @return le nombre de nombres premiers du segment courant
+		 */
+		public int count() {
+			int count = 0;
+			for (int j=0 ; j<size ; j++) {
+				count += Integer.bitCount(bits[j] & 0xFF);
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * @return le plus petit entier dont le carr est suprieur ou gal  V (V >= 0)
+	 */
+	private static long ceilSqrt(long v) {
+		long r = SegmentedSieve.isqrt(v);
+
+		return (r*r<v) ? r+1 : r;
+	}
+}
@@ -0,0 +1,153 @@
+package algorithms.sieve;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongConsumer;
+
+import algorithms.arithmetic.MillerRabin;
+
+/**
+ * Codage par plages de la suite "le plus petit facteur premier de i vaut P" pour i de 2  N,
+ * produit en flux sans jamais construire la liste des plus petits facteurs.
+ *
+ * i = P*m a P pour plus petit facteur si et seulement si m n'a aucun facteur premier infrieur  P :
+ * il suffit de cribler les m de [1, N/P] par les premiers infrieurs  P. Le crible avance par tranches
+ * de CHUNK valeurs de m, traites en parallle sur un ForkJoinPool avec au plus WINDOW tranches en vol par thread,
+ * et les plages sont recolles dans l'ordre sur le thread appelant : une plage de zros peut couvrir plusieurs
+ * tranches. La mmoire ne dpend pas de N.
+ */
+public class LowestFactorRuns {
+
+	/** nombre de valeurs de m par tranche */
+	private static final int CHUNK = 1 << 18;
+	/** nombre de tranches en vol par thread du pool */
+	private static final int WINDOW = 2;
+
+	private final ForkJoinPool pool;
+
+	public LowestFactorRuns() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public LowestFactorRuns(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Envoie  SINK les longueurs des plages, exactement comme Toolbox.translateTheLowestFactors sur la liste
+	 * des plus petits facteurs de 2  N : la premire plage est une plage de 1 si NUMBER vaut 2, de 0 sinon,
+	 * puis les plages alternent.
+	 */
+	public void encode(long n, long number, LongConsumer sink) {
+		Encoder encoder = new Encoder(number==2, sink);
+
+		// NUMBER n'est le plus petit facteur que de lui-mme et de ses multiples : il doit tre premier
+		if (number<=n && MillerRabin.isPrime(number)) {
+			long p = number;
+			long mMax = n/p;
+			// les premiers infrieurs  P qui peuvent diviser un m <= N/P
+			int[] primes = SegmentedSieve.smallPrimes((int) Math.min(p-1, mMax));
+			long previous = 1;
+
+			Deque<ForkJoinTask<int[]>> inFlight = new ArrayDeque<>();
+			int window = WINDOW*pool.getParallelism();
+			long low = 1;
+			long merged = 1;
+
+			while (low<=mMax || ! inFlight.isEmpty()) {
+				while (low<=mMax && inFlight.size()<window) {
+					long a = low;
+					long b = Math.min(low+CHUNK-1, mMax);
+					inFlight.addLast(pool.submit(() -> rough(a, b, primes)));
+					low += CHUNK;
+				}
+
+				// la plus ancienne tranche commence en MERGED
+				for (int offset : inFlight.removeFirst().join()) {
+					long i = p*(merged+offset);
+					encoder.zeros(i-previous-1);
+					encoder.one();
+					previous = i;
+				}
+				merged += CHUNK;
+			}
+
+			encoder.zeros(n-previous);
+		}
+		else {
+			encoder.zeros(Math.max(n-1, 0));
+		}
+
+		encoder.close();
+	}
+
+	/**
+	 * @return les dcalages (depuis A) des m de [A, B] sans aucun facteur parmi PRIMES
+	 */
+	private static int[] rough(long a, long b, int[] primes) {
+		int size = (int) (b-a+1);
+		boolean[] composite = new boolean[size];
+
+		for (int q : primes) {
+			// tous les multiples de Q, Q compris
+			long first = Math.max(q, (a+q-1)/q*q);
+			for (long m=first-a ; m<size ; m+=q) {
+				composite[(int) m] = true;
+			}
+		}
+
+		int[] offsets = new int[size];
+		int count = 0;
+		for (int j=0 ; j<size ; j++) {
+			if ( ! composite[j]) {
+				offsets[count++] = j;
+			}
+		}
+
+		return Arrays.copyOf(offsets, count);
+	}
+
+	/**
+	 * L'automate de Toolbox.translateTheLowestFactors, sur des plages entires de 0
+	 */
+	private static class Encoder {
+
+		private final LongConsumer sink;
+		private boolean isZero;
+		private long counter;
+
+		private Encoder(boolean startWithOnes, LongConsumer sink) {
+			this.sink = sink;
+			this.isZero = ! startWithOnes;
+			this.counter = 0;
+		}
+
+		private void one() {
+			if (isZero) {
+				sink.accept(counter);
+				isZero = false;
+				counter = 0;
+			}
+			counter++;
+		}
+
+		private void zeros(long k) {
+			if (k==0) {
+				return;
+			}
+			if ( ! isZero) {
+				sink.accept(counter);
+				isZero = true;
+				counter = 0;
+			}
+			counter += k;
+		}
+
+		private void close() {
+			sink.accept(counter);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package algorithms.sieve;
+
+import java.util.Arrays;
+
+/**
+ * Crible segment des plus petits facteurs premiers, pour les N trop grands pour SmallestFactorTable.
+ *
+ * Chaque segment contient, pour chaque entier de [LOW, LOW + SIZE[, son plus petit facteur premier :
+ * les premiers de base sont appliqus par ordre croissant et seul le premier  atteindre une case l'crit.
+ * La mmoire reste celle d'un segment plus les premiers de base jusqu' racine de N.
+ */
+public class LowestFactorSieve {
+
+	/** taille par dfaut d'un segment, en entiers (256 Ko) */
+	public static final int SEGMENT_SIZE = 1 << 16;
+
+	/** la borne suprieure (incluse) des nombres que ce crible peut traiter */
+	private final long limit;
+	/** les premiers de base jusqu' racine de LIMIT */
+	private final int[] primes;
+	/** la taille d'un segment en entiers */
+	private final int segmentSize;
+
+	public LowestFactorSieve(long limit) {
+		this(limit, SEGMENT_SIZE);
+	}
+
+	public LowestFactorSieve(long limit, int segmentSize) {
+		if (limit<0) {
+			throw new IllegalArgumentException("limit < 0 : " + limit);
+		}
+		if (segmentSize<=0) {
+			throw new IllegalArgumentException("segmentSize <= 0 : " + segmentSize);
+		}
+
+		this.limit = limit;
+		this.primes = SegmentedSieve.smallPrimes((int) SegmentedSieve.isqrt(limit));
+		this.segmentSize = segmentSize;
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	/**
+	 * @return un curseur sur les segments couvrant [FROM, TO]
+	 */
+	public Segment segments(long from, long to) {
+		return new Segment(from, to);
+	}
+
+	/**
+	 * Un segment du crible, dplac de proche en proche sur l'intervalle [FROM, TO]
+	 */
+	public class Segment {
+
+		private final long to;
+		/** FACTORS[J] : le plus petit facteur premier de LOW + J s'il est infrieur  racine de LIMIT, 0 sinon */
+		private final int[] factors;
+		/** pour chaque premier de base actif, le prochain multiple  traiter (relatif au segment courant) */
+		private final int[] next;
+		/** le nombre de premiers de base actifs (ceux dont le carr a t atteint) */
+		private int active;
+		/** le dbut du segment courant */
+		private long low;
+		/** le nombre d'entiers du segment courant */
+		private int size;
+
+		protected Segment(long from, long to) {
+			if (to>limit) {
+				throw new IllegalArgumentException("to > limit : " + to + " > " + limit);
+			}
+
+			this.to = to;
+			this.factors = new int[segmentSize];
+			this.next = new int[primes.length];
+			this.active = 0;
+			this.low = Math.max(from, 2);
+			this.size = 0;
+		}
+
+		/**
+		 * Crible le segment suivant
+		 * @return FALSE si l'intervalle est entirement parcouru
+		 */
+		public boolean next() {
+			low += size;
+			if (low>to) {
+				size = 0;
+				return false;
+			}
+
+			size = (int) Math.min(segmentSize, to-low+1);
+			long high = low + size;
+			Arrays.fill(factors, 0, size, 0);
+
+			// activation des premiers dont le carr tombe dans ce segment
+			while (active<primes.length && (long) primes[active]*primes[active]<high) {
+				long p = primes[active];
+				long first = Math.max(p*p, (low+p-1)/p*p);
+				next[active] = (int) (first-low);
+				active++;
+			}
+
+			for (int i=0 ; i<active ; i++) {
+				int p = primes[i];
+				int j = next[i];
+				for ( ; j<size ; j+=p) {
+					if (factors[j]==0) {
+						factors[j] = p;
+					}
+				}
+				next[i] = j-size;
+			}
+
+			return true;
+		}
+
+		/**
+		 * @return le dbut du segment courant
+		 */
+		public long low() {
+			return low;
+		}
+
+		/**
+		 * @return le nombre d'entiers du segment courant
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return le plus petit facteur premier de LOW + J
+		 */
+		public long lowestFactor(int j) {
+			int f = factors[j];
+			return (f==0) ? low+j : f;
+		}
+	}
+}
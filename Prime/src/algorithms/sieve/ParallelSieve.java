@@ -0,0 +1,222 @@
+package algorithms.sieve;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Crible segment multi-coeurs.
+ *
+ * L'intervalle est dcoup en tranches indpendantes (plusieurs segments chacune) cribles
+ * en parallle sur un ForkJoinPool. Tous les workers partagent la mme table des premiers de base
+ * (celle du SegmentedSieve, en lecture seule) et ont chacun leur propre curseur.
+ * Les rsultats des tranches sont rendus dans l'ordre croissant, sur le thread appelant,
+ * avec au plus WINDOW tranches en vol : la mmoire ne dpend pas de la taille de l'intervalle.
+ *
+ * Quand SieveMetrics mesure, le temps de travail de chaque tranche est cumul : l'inactivit des workers
+ * est le reste de la dure de process multiplie par le nombre de threads du pool (sur le pool commun, le travail
+ * des autres tches du pool en fait partie : mesurer sur un pool ddi).
+ */
+public class ParallelSieve {
+
+	/** nombre de tranches en vol par thread du pool */
+	private static final int WINDOW = 2;
+	/** nombre maximal de segments par tranche */
+	private static final int SEGMENTS_PER_CHUNK = 8;
+
+	private final SegmentedSieve sieve;
+	private final ForkJoinPool pool;
+
+	public ParallelSieve(long limit) {
+		this(new SegmentedSieve(limit), ForkJoinPool.commonPool());
+	}
+
+	public ParallelSieve(SegmentedSieve sieve, ForkJoinPool pool) {
+		this.sieve = sieve;
+		this.pool = pool;
+	}
+
+	public SegmentedSieve getSieve() {
+		return sieve;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Crible [FROM, TO] tranche par tranche : WORK est excut en parallle sur un curseur propre  chaque tranche,
+	 * puis MERGE reoit les rsultats sur le thread appelant, dans l'ordre croissant des tranches.
+	 * Comme pour SegmentedSieve.Segment, 2, 3 et 5 sont  la charge de l'appelant.
+	 */
+	public <R> void process(long from, long to, Function<SegmentedSieve.Segment, R> work, Consumer<R> merge) {
+		from = Math.max(from, 0);
+		if (from>to) {
+			return;
+		}
+
+		long chunk = 30L*chunkBytes(from, to);
+		long low = from - from%30;
+		Deque<ForkJoinTask<R>> inFlight = new ArrayDeque<>();
+		int window = WINDOW*pool.getParallelism();
+
+		long start = SieveMetrics.start();
+		LongAdder busy = (start!=0) ? new LongAdder() : null;
+		int chunks = 0;
+
+		while (low<=to || ! inFlight.isEmpty()) {
+			// remplissage de la fentre
+			while (low<=to && inFlight.size()<window) {
+				long a = Math.max(low, from);
+				long b = Math.min(low+chunk-1, to);
+				if (busy==null) {
+					inFlight.addLast(pool.submit(() -> work.apply(sieve.segments(a, b))));
+				}
+				else {
+					inFlight.addLast(pool.submit(() -> {
+						long t = System.nanoTime();
+						try {
+							return work.apply(sieve.segments(a, b));
+						}
+						finally {
+							busy.add(System.nanoTime()-t);
+						}
+					}));
+				}
+				low += chunk;
+				chunks++;
+			}
+
+			// la plus ancienne tranche est la prochaine dans l'ordre
+			merge.accept(inFlight.removeFirst().join());
+		}
+
+		if (busy!=null) {
+			SieveMetrics.process(from, to, chunks, pool.getParallelism(), busy.sum(), start);
+		}
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [FROM, TO], par ordre croissant, sur le thread appelant
+	 */
+	public void forEach(long from, long to, LongConsumer action) {
+		for (int p : new int[]{2, 3, 5}) {
+			if (p>=from && p<=to) {
+				action.accept(p);
+			}
+		}
+
+		process(from, to, ParallelSieve::copy, (Bits bits) -> bits.forEach(action));
+	}
+
+	/**
+	 * @return le nombre de nombres premiers dans [FROM, TO]
+	 */
+	public long count(long from, long to) {
+		long[] count = {0};
+		for (int p : new int[]{2, 3, 5}) {
+			if (p>=from && p<=to) {
+				count[0]++;
+			}
+		}
+
+		process(from, to, (SegmentedSieve.Segment segment) -> {
+			long n = 0;
+			while (segment.next()) {
+				n += segment.count();
+			}
+			return n;
+		}, (Long n) -> count[0] += n);
+
+		return count[0];
+	}
+
+	/**
+	 * @return la taille d'une tranche en octets : assez de tranches pour occuper tous les threads,
+	 * sans descendre sous un segment ni dpasser SEGMENTS_PER_CHUNK segments
+	 */
+	private int chunkBytes(long from, long to) {
+		return chunkBytes(from, to, sieve.getSegmentBytes(), pool.getParallelism());
+	}
+
+	/**
+	 * @return le nombre de tranches de [FROM, TO] pour des segments de SEGMENTBYTES octets et PARALLELISM threads :
+	 * au-del, des threads de plus n'acclrent pas process
+	 */
+	public static long chunks(long from, long to, int segmentBytes, int parallelism) {
+		from = Math.max(from, 0);
+		if (from>to) {
+			return 0;
+		}
+
+		long chunk = 30L*chunkBytes(from, to, segmentBytes, parallelism);
+		long low = from - from%30;
+
+		return (to-low)/chunk + 1;
+	}
+
+	private static int chunkBytes(long from, long to, int segmentBytes, int parallelism) {
+		long bytes = (to-from)/30 + 1;
+		long perTask = bytes/(4L*parallelism) + 1;
+		long chunk = Math.min((long) SEGMENTS_PER_CHUNK*segmentBytes, Math.max(segmentBytes, perTask));
+
+		// multiple de la taille d'un segment
+		return (int) ((chunk+segmentBytes-1)/segmentBytes*segmentBytes);
+	}
+
+	/**
+	 * @return les bits de toute la tranche parcourue par SEGMENT
+	 */
+	private static Bits copy(SegmentedSieve.Segment segment) {
+		Bits bits = null;
+
+		while (segment.next()) {
+			if (bits==null) {
+				bits = new Bits(segment.low());
+			}
+			bits.append(segment.bits(), segment.size());
+		}
+
+		return (bits==null) ? new Bits(0) : bits;
+	}
+
+	/**
+	 * Les bits d'une tranche crible (mme codage que SegmentedSieve : un octet pour 30 nombres)
+	 */
+	private static class Bits {
+
+		private final long low;
+		private byte[] bytes = new byte[0];
+		private int size = 0;
+
+		private Bits(long low) {
+			this.low = low;
+		}
+
+		private void append(byte[] src, int n) {
+			if (size+n>bytes.length) {
+				byte[] grown = new byte[Math.max(2*bytes.length, size+n)];
+				System.arraycopy(bytes, 0, grown, 0, size);
+				bytes = grown;
+			}
+			System.arraycopy(src, 0, bytes, size, n);
+			size += n;
+		}
+
+		private void forEach(LongConsumer action) {
+			long base = low;
+			for (int j=0 ; j<size ; j++, base+=30) {
+				int b = bytes[j] & 0xFF;
+				while (b!=0) {
+					action.accept(base + SegmentedSieve.RESIDUES[Integer.numberOfTrailingZeros(b)]);
+					b &= b-1;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package algorithms.sieve;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Fonction de compte des nombres premiers pi(x), par la mthode combinatoire de Meissel-Lehmer :
+ *
+ * 		pi(x) = phi(x, a) + a - 1 - P2(x, a)		avec a = pi(x^1/3)
+ *
+ * - phi(x, a) compte les entiers <= x sans facteur parmi les a premiers nombres premiers,
+ *   par la rcurrence phi(x, b) = phi(x, b-1) - phi(x/p_b, b-1), coupe ds que x < p_(b+1)^2
+ *   (il ne reste alors que 1 et les premiers de ]p_b, x], lus dans la table)
+ * - P2(x, a) compte les entiers <= x produits de deux premiers > x^1/3
+ *
+ * Les deux termes ne lisent pi(v) que pour v <= x^2/3 : seule cette partie est crible (en parallle, dans
+ * une PrimeTable), et la somme de tte de phi est elle aussi rpartie sur le pool.
+ */
+public class PrimeCounting {
+
+	/** en dessous de cette borne, le crible segment est plus rapide que la mthode combinatoire */
+	private static final long SIEVE_LIMIT = 1L << 24;
+	/** nombre de petits premiers (2, 3, 5, 7, 11, 13) traits par les tables de phi */
+	private static final int C = 6;
+	/** PRIMORIALS[c] : le produit des c premiers nombres premiers */
+	private static final int[] PRIMORIALS = {1, 2, 6, 30, 210, 2310, 30030};
+	/** PHI_TABLES[c][v] : phi(v, c) pour 0 <= v < PRIMORIALS[c] */
+	private static final int[][] PHI_TABLES = new int[C+1][];
+
+	static {
+		int[] small = {2, 3, 5, 7, 11, 13};
+		for (int c=0 ; c<=C ; c++) {
+			int[] table = new int[PRIMORIALS[c]];
+			int count = 0;
+			for (int v=0 ; v<table.length ; v++) {
+				boolean coprime = v>0;
+				for (int i=0 ; i<c && coprime ; i++) {
+					coprime = v%small[i]>0;
+				}
+				if (coprime) {
+					count++;
+				}
+				table[v] = count;
+			}
+			PHI_TABLES[c] = table;
+		}
+	}
+
+	private final ForkJoinPool pool;
+
+	public PrimeCounting() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public PrimeCounting(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return le nombre de nombres premiers infrieurs ou gaux  X
+	 */
+	public long pi(long x) {
+		if (x<2) {
+			return 0;
+		}
+		if (x<SIEVE_LIMIT) {
+			return new SegmentedSieve(x).count(0, x);
+		}
+
+		return new Computation(x).pi();
+	}
+
+	/**
+	 * Un calcul de pi(x) : la table des premiers jusqu' x^2/3 et les premiers jusqu' racine de x
+	 */
+	private class Computation {
+
+		private final long x;
+		private final PrimeTable table;
+		/** PRIMES[i] : le i-me nombre premier (PRIMES[0] n'est pas utilis) */
+		private final int[] primes;
+		/** a = pi(x^1/3) */
+		private final int a;
+
+		private Computation(long x) {
+			long cbrt = icbrt(x);
+			long sqrt = SegmentedSieve.isqrt(x);
+			long y = Math.max((cbrt+1)*(cbrt+1), sqrt);
+
+			this.x = x;
+			this.table = new PrimeTable(y, new ParallelSieve(new SegmentedSieve(y), pool));
+
+			int[] small = SegmentedSieve.smallPrimes((int) sqrt);
+			this.primes = new int[small.length+1];
+			System.arraycopy(small, 0, primes, 1, small.length);
+
+			this.a = (int) table.pi(cbrt);
+		}
+
+		private long pi() {
+			// somme de tte de phi(x, a), rpartie sur le pool
+			long sum = pool.submit(() -> IntStream.rangeClosed(C+1, a)
+					.parallel()
+					.mapToLong(i -> phi(x/primes[i], i-1))
+					.sum()).join();
+			long phi = phiSmall(x, Math.min(a, C)) - sum;
+
+			// P2 : les x/p pour x^1/3 < p <= racine de x
+			long p2 = 0;
+			for (int i=a+1 ; i<primes.length ; i++) {
+				p2 += table.pi(x/primes[i]) - (i-1);
+			}
+
+			return phi + a - 1 - p2;
+		}
+
+		/**
+		 * @return phi(V, B) : le nombre d'entiers de [1, V] sans facteur parmi les B premiers nombres premiers
+		 */
+		private long phi(long v, int b) {
+			if (b<=C) {
+				return phiSmall(v, b);
+			}
+
+			// V < p_(b+1)^2 : il ne reste que 1 et les premiers de ]p_b, V]
+			long next = primes[b+1];
+			if (v<next*next) {
+				return (v<1) ? 0 : 1 + Math.max(0, table.pi(v) - b);
+			}
+
+			long result = phiSmall(v, C);
+			for (int i=C+1 ; i<=b ; i++) {
+				long w = v/primes[i];
+				// W < p_i : phi(W, i-1) = 1 pour tous les termes restants
+				if (w<primes[i]) {
+					return result - (b-i+1);
+				}
+				result -= phi(w, i-1);
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * @return phi(V, C) pour C <= 6, par priodicit modulo le primorial
+	 */
+	private static long phiSmall(long v, int c) {
+		int p = PRIMORIALS[c];
+		int[] table = PHI_TABLES[c];
+
+		return (v/p)*table[p-1] + table[(int) (v%p)];
+	}
+
+	/**
+	 * @return la partie entire de la racine cubique de N
+	 */
+	public static long icbrt(long n) {
+		long r = (long) Math.cbrt((double) n);
+
+		while (r*r*r>n) {
+			r--;
+		}
+		while ((r+1)*(r+1)*(r+1)<=n) {
+			r++;
+		}
+
+		return r;
+	}
+
+	/**
+	 * @return le logarithme intgral li(x), par la srie de Ramanujan
+	 */
+	public static double li(double x) {
+		double gamma = 0.57721566490153286061;
+		double ln = Math.log(x);
+		double sum = 0;
+		double term = 1;
+		double inner = 0;
+
+		for (int n=1 ; n<200 ; n++) {
+			// (ln x)^n / (n! 2^(n-1))
+			term *= ln/n;
+			if (n>1) {
+				term /= 2;
+			}
+			if ((n-1)%2==0) {
+				inner += 1.0/n;
+			}
+			double s = ((n%2==1) ? term : -term) * inner;
+			sum += s;
+			if (Math.abs(s)<1e-17*Math.abs(sum)) {
+				break;
+			}
+		}
+
+		return gamma + Math.log(ln) + Math.sqrt(x)*sum;
+	}
+
+	/**
+	 * Affiche la comparaison pi(x), x/ln x et li(x) pour x = 10, 100, ..., 10^MAX_EXPONENT
+	 */
+	public void printTable(int maxExponent) {
+		System.out.println(String.format("%-8s %20s %20s %20s %10s %12s", "x", "pi(x)", "x/ln x", "li(x)", "pi/(x/ln)", "li - pi"));
+
+		long x = 1;
+		for (int e=1 ; e<=maxExponent ; e++) {
+			x *= 10;
+			long pi = pi(x);
+			double xlnx = x/Math.log(x);
+			double li = li(x);
+
+			System.out.println(String.format("10^%-5d %20d %20.0f %20.0f %10.4f %12.0f", e, pi, xlnx, li, pi/xlnx, li-pi));
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package algorithms.sieve;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Table des nombres premiers de [0, LIMIT] enregistre dans un fichier, relue par FileChannel.map :
+ * une fois le fichier cr, les excutions suivantes n'ont plus rien  cribler et les requtes
+ * ne sont que des lectures dans la mmoire projete (rien sur le tas).
+ *
+ * Format (gros-boutiste) :
+ * 		en-tte		MAGIC, VERSION, LIMIT, BLOCK_BYTES		(HEADER_BYTES octets)
+ * 		compteurs	le nombre de premiers (hors 2, 3 et 5) avant chaque bloc de BLOCK_BYTES octets
+ * 		bits		le codage de SegmentedSieve, un octet pour 30 nombres
+ *
+ * Une projection est limite  2 Go : LIMIT ne peut gure dpasser 6*10^10.
+ */
+public class PrimeIndex {
+
+	/** "PRIM" */
+	private static final int MAGIC = 0x5052494D;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 32;
+
+	private final long limit;
+	private final int blockBytes;
+	/** le fichier projet en entier */
+	private final ByteBuffer buffer;
+	/** position du premier octet de bits */
+	private final int bitsOffset;
+
+	private PrimeIndex(ByteBuffer buffer) throws IOException {
+		if (buffer.capacity()<HEADER_BYTES || buffer.getInt(0)!=MAGIC) {
+			throw new IOException("ce n'est pas un index de nombres premiers");
+		}
+		if (buffer.getInt(4)!=VERSION) {
+			throw new IOException("version d'index non supporte : " + buffer.getInt(4));
+		}
+
+		this.buffer = buffer;
+		this.limit = buffer.getLong(8);
+		this.blockBytes = buffer.getInt(16);
+		this.bitsOffset = HEADER_BYTES + 8*blockCount(limit, blockBytes);
+
+		if (limit<0 || blockBytes<=0 || buffer.capacity()!=fileSize(limit, blockBytes)) {
+			throw new IOException("index tronqu ou corrompu");
+		}
+	}
+
+	/**
+	 * @return l'index enregistr dans FILE
+	 */
+	public static PrimeIndex open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			// la projection reste valide aprs la fermeture du canal
+			return new PrimeIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * @return l'index de FILE s'il couvre au moins [0, LIMIT], sinon un nouvel index cr dans FILE
+	 */
+	public static PrimeIndex openOrCreate(Path file, long limit) throws IOException {
+		if (Files.exists(file)) {
+			try {
+				PrimeIndex index = open(file);
+				if (index.getLimit()>=limit) {
+					return index;
+				}
+			}
+			catch (IOException e) {
+				// fichier illisible : on le remplace
+			}
+		}
+
+		create(file, limit, new ParallelSieve(new SegmentedSieve(limit), ForkJoinPool.commonPool()));
+		return open(file);
+	}
+
+	/**
+	 * Crible [0, LIMIT] en parallle et crit l'index dans FILE.
+	 * Le fichier est d'abord crit  ct puis renomm : un lecteur ne voit jamais d'index  moiti crit.
+	 */
+	public static void create(Path file, long limit, ParallelSieve sieve) throws IOException {
+		int blockBytes = PrimeTable.BLOCK_BYTES;
+		long size = fileSize(limit, blockBytes);
+		if (size>Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("limit trop grand : " + limit);
+		}
+
+		Path absolute = file.toAbsolutePath();
+		Path tmp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+		try {
+			try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+				int bitsOffset = HEADER_BYTES + 8*blockCount(limit, blockBytes);
+
+				// chaque tranche crit directement sa partie des bits
+				sieve.process(0, limit, (SegmentedSieve.Segment segment) -> {
+					ByteBuffer dst = out.duplicate();
+					while (segment.next()) {
+						dst.position(bitsOffset + (int) (segment.low()/30));
+						dst.put(segment.bits(), 0, segment.size());
+					}
+					return null;
+				}, (Object nothing) -> {});
+
+				long count = 0;
+				int bytes = (int) (limit/30) + 1;
+				for (int j=0 ; j<bytes ; j++) {
+					if (j%blockBytes==0) {
+						out.putLong(HEADER_BYTES + 8*(j/blockBytes), count);
+					}
+					count += Integer.bitCount(out.get(bitsOffset + j) & 0xFF);
+				}
+
+				// l'en-tte en dernier
+				out.putInt(0, MAGIC);
+				out.putInt(4, VERSION);
+				out.putLong(8, limit);
+				out.putInt(16, blockBytes);
+				out.force();
+			}
+
+			try {
+				Files.move(tmp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	private static int blockCount(long limit, int blockBytes) {
+		return (int) ((limit/30 + 1)/blockBytes + 1);
+	}
+
+	private static long fileSize(long limit, int blockBytes) {
+		return HEADER_BYTES + 8L*((limit/30 + 1)/blockBytes + 1) + limit/30 + 1;
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return TRUE si V (0 <= V <= LIMIT) est premier
+	 */
+	public boolean isPrime(long v) {
+		if (v<7) {
+			return v==2 || v==3 || v==5;
+		}
+
+		int bit = SegmentedSieve.BIT[(int) (v%30)];
+		return bit!=0 && (buffer.get(bitsOffset + (int) (v/30)) & bit)!=0;
+	}
+
+	/**
+	 * @return le plus petit nombre premier strictement suprieur  V, ou -1 s'il dpasse LIMIT
+	 */
+	public long nextPrime(long v) {
+		if (v<5) {
+			long p = (v<2) ? 2 : (v<3) ? 3 : 5;
+			return (p<=limit) ? p : -1;
+		}
+
+		v++;
+		if (v>limit) {
+			return -1;
+		}
+
+		int j = (int) (v/30);
+		int r = (int) (v%30);
+		int last = (int) (limit/30);
+		int b = buffer.get(bitsOffset + j) & 0xFF;
+		// les bits des rsidus infrieurs  V%30 sont masqus
+		if (r>0) {
+			b &= ~PrimeTable.MASK_UPTO[r-1];
+		}
+
+		while (b==0) {
+			if (++j>last) {
+				return -1;
+			}
+			b = buffer.get(bitsOffset + j) & 0xFF;
+		}
+
+		long p = 30L*j + SegmentedSieve.RESIDUES[Integer.numberOfTrailingZeros(b)];
+		return (p<=limit) ? p : -1;
+	}
+
+	/**
+	 * @return le nombre de nombres premiers infrieurs ou gaux  V (0 <= V <= LIMIT)
+	 */
+	public long pi(long v) {
+		if (v<7) {
+			return (v<2) ? 0 : (v<3) ? 1 : (v<5) ? 2 : 3;
+		}
+
+		int j = (int) (v/30);
+		int block = j/blockBytes;
+		long count = 3 + buffer.getLong(HEADER_BYTES + 8*block);
+
+		for (int k=block*blockBytes ; k<j ; k++) {
+			count += Integer.bitCount(buffer.get(bitsOffset + k) & 0xFF);
+		}
+
+		return count + Integer.bitCount(buffer.get(bitsOffset + j) & PrimeTable.MASK_UPTO[(int) (v%30)]);
+	}
+}
@@ -0,0 +1,195 @@
+package algorithms.sieve;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import algorithms.arithmetic.MillerRabin;
+
+/**
+ * Itrateur paresseux sur les nombres premiers, sans borne fixe  l'avance.
+ *
+ * Les premiers sont extraits d'un segment  la fois (SegmentedSieve) : la mmoire se limite
+ *  un segment et aux premiers de base. Quand la borne du crible courant est dpasse, un crible
+ *  la borne double (et donc aux premiers de base plus nombreux) prend le relais.
+ * skipTo(x) repositionne le crible directement en x, sans rien cribler en dessous.
+ *
+ * Au-del de BASE_PRIMES_LIMIT^2, garder tous les premiers de base coterait des centaines de Mo :
+ * le crible n'utilise alors que ceux infrieurs  BASE_PRIMES_LIMIT et les survivants sont confirms
+ * par MillerRabin.
+ */
+public class PrimeIterator implements PrimitiveIterator.OfLong {
+
+	/** la plus grande borne accepte : sa racine doit tenir dans un int */
+	public static final long MAX_LIMIT = (long) Integer.MAX_VALUE * Integer.MAX_VALUE;
+	/** tendue minimale d'un crible */
+	private static final long INITIAL_SPAN = 1L << 24;
+	/** borne des premiers de base conservs */
+	private static final int BASE_PRIMES_LIMIT = 1 << 22;
+	private static final int[] SMALL_PRIMES = {2, 3, 5};
+
+	/** la borne suprieure (incluse) */
+	private final long to;
+	/** le plus petit nombre qui n'a pas encore t examin */
+	private long position;
+	/** le prochain premier, dj trouv mais pas encore rendu (-1 si aucun) */
+	private long pending;
+	/** le crible courant, et le segment en cours de lecture */
+	private SegmentedSieve sieve;
+	private SegmentedSieve.Segment segment;
+	/** FALSE si le crible courant est partiel (survivants  confirmer) */
+	private boolean exact;
+	/** la fin de l'intervalle couvert par SEGMENT */
+	private long segmentTo;
+	/** l'octet en cours de lecture, et ses bits restants */
+	private int j;
+	private int b;
+
+	public PrimeIterator() {
+		this(0, MAX_LIMIT);
+	}
+
+	public PrimeIterator(long from) {
+		this(from, MAX_LIMIT);
+	}
+
+	public PrimeIterator(long from, long to) {
+		if (to>MAX_LIMIT) {
+			throw new IllegalArgumentException("to > " + MAX_LIMIT + " : " + to);
+		}
+
+		this.to = to;
+		this.position = Math.max(from, 0);
+		this.pending = -1;
+	}
+
+	/**
+	 * Saute directement  X : le prochain premier rendu sera suprieur ou gal  X
+	 */
+	public void skipTo(long x) {
+		if (pending>=x || (pending<0 && position>=x)) {
+			return;
+		}
+
+		position = x;
+		pending = -1;
+		segment = null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (pending<0) {
+			pending = advance();
+		}
+
+		return pending>=0;
+	}
+
+	@Override
+	public long nextLong() {
+		if ( ! hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		long p = pending;
+		pending = -1;
+		return p;
+	}
+
+	/**
+	 * @return le prochain premier de [POSITION, TO], ou -1
+	 */
+	private long advance() {
+		// 2, 3 et 5 ne sont pas reprsents par la roue
+		if (position<7) {
+			for (int p : SMALL_PRIMES) {
+				if (p>=position && p<=to) {
+					position = p+1;
+					return p;
+				}
+			}
+			position = 7;
+		}
+
+		while (position<=to) {
+			if (segment==null) {
+				open();
+			}
+
+			while (true) {
+				if (b!=0) {
+					long p = segment.low() + 30L*j + SegmentedSieve.RESIDUES[Integer.numberOfTrailingZeros(b)];
+					b &= b-1;
+					position = p+1;
+					if (exact || MillerRabin.isPrime(p)) {
+						return p;
+					}
+					continue;
+				}
+
+				j++;
+				if (j>=segment.size()) {
+					if ( ! segment.next()) {
+						// fin de l'intervalle couvert par ce crible
+						position = segmentTo+1;
+						segment = null;
+						break;
+					}
+					j = 0;
+				}
+				b = segment.bits()[j] & 0xFF;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Ouvre un segment  partir de POSITION, en agrandissant le crible si ncessaire
+	 */
+	private void open() {
+		if (sieve==null || position>sieve.getLimit()) {
+			long previous = (sieve==null) ? 0 : sieve.getLimit();
+			long limit = Math.min(to, Math.max(position+INITIAL_SPAN, 2*Math.min(previous, MAX_LIMIT/2)));
+
+			exact = SegmentedSieve.isqrt(limit)<=BASE_PRIMES_LIMIT;
+			if (exact) {
+				sieve = new SegmentedSieve(limit);
+			}
+			else {
+				// crible partiel : la borne ne dpend plus des premiers de base, autant aller jusqu'au bout
+				sieve = new SegmentedSieve(to, SegmentedSieve.smallPrimes(BASE_PRIMES_LIMIT), SegmentedSieve.SEGMENT_BYTES);
+			}
+		}
+
+		segmentTo = Math.min(to, sieve.getLimit());
+		segment = sieve.segments(position, segmentTo);
+		segment.next();
+		j = 0;
+		b = segment.bits()[0] & 0xFF;
+	}
+
+	/**
+	 * @return les nombres premiers de [FROM, TO], par ordre croissant, produits  la demande
+	 */
+	public static LongStream primes(long from, long to) {
+		return stream(new PrimeIterator(from, to));
+	}
+
+	/**
+	 * @return les nombres premiers  partir de FROM, par ordre croissant, sans fin
+	 */
+	public static LongStream primes(long from) {
+		return stream(new PrimeIterator(from));
+	}
+
+	private static LongStream stream(PrimeIterator iterator) {
+		int characteristics = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+				| Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+		return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false);
+	}
+}
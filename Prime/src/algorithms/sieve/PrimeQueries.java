@@ -0,0 +1,203 @@
+package algorithms.sieve;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Requtes pi(x), nombre de premiers dans [A, B] et n-ime nombre premier,  partir d'une table
+ * clairseme de points de repre (c, pi(c)) pour c multiple de 2^SHIFT.
+ *
+ * Une requte saute au repre le plus proche et ne crible que l'cart restant (au plus 2^(SHIFT-1) nombres).
+ * Les repres sont calculs  la demande : par le crible depuis un repre voisin dj connu, sinon par
+ * Meissel-Lehmer (PrimeCounting) ; ils sont gards dans un cache LRU de CAPACITY entres.
+ */
+public class PrimeQueries {
+
+	/** cart par dfaut entre deux repres : 2^20 nombres */
+	public static final int DEFAULT_SHIFT = 20;
+	/** nombre de repres gards par dfaut */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	private static final long[] SMALL_PRIMES = {2, 3, 5};
+
+	private final int shift;
+	private final PrimeCounting counting;
+	/** indice du repre => pi(indice * 2^SHIFT), par ordre d'accs */
+	private final LinkedHashMap<Long, Long> checkpoints;
+	/** le crible de l'cart, remplac par un plus grand au besoin */
+	private SegmentedSieve sieve;
+
+	public PrimeQueries() {
+		this(DEFAULT_SHIFT, DEFAULT_CAPACITY, new PrimeCounting());
+	}
+
+	public PrimeQueries(int shift, int capacity, PrimeCounting counting) {
+		if (shift<5 || shift>40 || capacity<2) {
+			throw new IllegalArgumentException("shift = " + shift + ", capacity = " + capacity);
+		}
+
+		this.shift = shift;
+		this.counting = counting;
+		this.checkpoints = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+				return size()>capacity;
+			}
+		};
+	}
+
+	/**
+	 * @return le nombre de nombres premiers infrieurs ou gaux  X
+	 */
+	public long pi(long x) {
+		if (x<2) {
+			return 0;
+		}
+
+		// le repre le plus proche, au-dessous ou au-dessus
+		long i = (x + (1L << (shift-1))) >>> shift;
+		long c = i << shift;
+		long pi = checkpoint(i);
+
+		if (c<x) {
+			return pi + count(c+1, x);
+		}
+
+		return pi - count(x+1, c);
+	}
+
+	/**
+	 * @return le nombre de nombres premiers dans [A, B]
+	 */
+	public long count(long a, long b) {
+		a = Math.max(a, 0);
+		if (a>b) {
+			return 0;
+		}
+		// un petit intervalle se crible directement
+		if (b-a<(1L << shift)) {
+			return sieve(b).count(a, b);
+		}
+
+		return pi(b) - pi(a-1);
+	}
+
+	/**
+	 * @return le N-ime nombre premier (N >= 1 : 2, 3, 5, 7, ...)
+	 */
+	public long nthPrime(long n) {
+		if (n<1) {
+			throw new IllegalArgumentException("n < 1 : " + n);
+		}
+		if (n<=SMALL_PRIMES.length) {
+			return SMALL_PRIMES[(int) n-1];
+		}
+
+		// estimation : n (ln n + ln ln n - 1 + (ln ln n - 2) / ln n), puis ajustement sur les repres
+		double ln = Math.log(n);
+		double lnln = Math.log(ln);
+		long estimate = (long) (n*(ln + lnln - 1 + (lnln-2)/ln));
+		long i = Math.max(estimate >>> shift, 0);
+
+		while (i>0 && checkpoint(i)>=n) {
+			i--;
+		}
+		while (checkpoint(i+1)<n) {
+			i++;
+		}
+
+		// le N-ime premier est dans ]c, c + 2^SHIFT] : il reste REMAINING premiers  passer
+		long c = i << shift;
+		long remaining = n - checkpoint(i);
+		if (c==0) {
+			remaining -= SMALL_PRIMES.length;
+		}
+
+		SegmentedSieve.Segment segment = sieve(c + (1L << shift)).segments(c+1, c + (1L << shift));
+		while (segment.next()) {
+			int count = segment.count();
+			if (count<remaining) {
+				remaining -= count;
+				continue;
+			}
+
+			byte[] bits = segment.bits();
+			for (int j=0 ; ; j++) {
+				int b = bits[j] & 0xFF;
+				int bc = Integer.bitCount(b);
+				if (bc<remaining) {
+					remaining -= bc;
+					continue;
+				}
+				while (--remaining>0) {
+					b &= b-1;
+				}
+				return segment.low() + 30L*j + SegmentedSieve.RESIDUES[Integer.numberOfTrailingZeros(b)];
+			}
+		}
+
+		throw new IllegalStateException("repres incohrents autour de " + c);
+	}
+
+	/**
+	 * @return pi(I * 2^SHIFT), depuis le cache, depuis un repre voisin connu, ou par Meissel-Lehmer
+	 */
+	private long checkpoint(long i) {
+		if (i==0) {
+			return 0;
+		}
+
+		long step = 1L << shift;
+		long c = i << shift;
+		Long previous;
+		Long next;
+
+		synchronized (checkpoints) {
+			Long pi = checkpoints.get(i);
+			if (pi!=null) {
+				return pi;
+			}
+			previous = (i==1) ? Long.valueOf(0) : checkpoints.get(i-1);
+			next = checkpoints.get(i+1);
+		}
+
+		long pi;
+		if (previous!=null) {
+			pi = previous + sieve(c).count(c-step+1, c);
+		}
+		else if (next!=null) {
+			pi = next - sieve(c+step).count(c+1, c+step);
+		}
+		else {
+			pi = counting.pi(c);
+		}
+
+		synchronized (checkpoints) {
+			checkpoints.put(i, pi);
+		}
+
+		return pi;
+	}
+
+	/**
+	 * @return un crible qui couvre [0, LIMIT] (sa borne est au moins double  chaque remplacement)
+	 */
+	private synchronized SegmentedSieve sieve(long limit) {
+		if (sieve==null || sieve.getLimit()<limit) {
+			long previous = (sieve==null) ? 0 : sieve.getLimit();
+			sieve = new SegmentedSieve(Math.max(limit, 2*Math.min(previous, PrimeIterator.MAX_LIMIT/2)));
+		}
+
+		return sieve;
+	}
+
+	/**
+	 * @return le nombre de repres actuellement en cache
+	 */
+	public int getCachedCheckpoints() {
+		synchronized (checkpoints) {
+			return checkpoints.size();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package algorithms.sieve;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Table des nombres premiers de [0, LIMIT], au mme codage que SegmentedSieve (un octet pour 30 nombres),
+ * accompagne du nombre de premiers avant chaque bloc de BLOCK_BYTES octets.
+ *
+ * isPrime(v) est une simple lecture de bit, et pi(v) un accs au compteur du bloc suivi d'au plus
+ * BLOCK_BYTES comptages de bits. La table est remplie en parallle par un ParallelSieve.
+ */
+public class PrimeTable {
+
+	/** nombre d'octets (1920 nombres) entre deux compteurs */
+	public static final int BLOCK_BYTES = 64;
+	/** pour chaque rsidu modulo 30, le masque des bits des rsidus qui lui sont infrieurs ou gaux */
+	static final int[] MASK_UPTO = new int[30];
+
+	static {
+		for (int r=0 ; r<30 ; r++) {
+			for (int i=0 ; i<SegmentedSieve.RESIDUES.length ; i++) {
+				if (SegmentedSieve.RESIDUES[i]<=r) {
+					MASK_UPTO[r] |= 1 << i;
+				}
+			}
+		}
+	}
+
+	private final long limit;
+	/** l'octet J reprsente [30*J, 30*J + 30[ */
+	private final byte[] bits;
+	/** COUNTS[B] : le nombre de premiers (hors 2, 3 et 5) avant le bloc B */
+	private final long[] counts;
+
+	public PrimeTable(long limit) {
+		this(limit, new ParallelSieve(new SegmentedSieve(limit), ForkJoinPool.commonPool()));
+	}
+
+	public PrimeTable(long limit, ParallelSieve sieve) {
+		if (limit/30>=Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("limit trop grand : " + limit);
+		}
+
+		this.limit = limit;
+		this.bits = new byte[(int) (limit/30) + 1];
+
+		// chaque tranche crit directement sa partie de la table
+		sieve.process(0, limit, (SegmentedSieve.Segment segment) -> {
+			while (segment.next()) {
+				System.arraycopy(segment.bits(), 0, bits, (int) (segment.low()/30), segment.size());
+			}
+			return null;
+		}, (Object nothing) -> {});
+
+		this.counts = new long[bits.length/BLOCK_BYTES + 1];
+		long count = 0;
+		for (int j=0 ; j<bits.length ; j++) {
+			if (j%BLOCK_BYTES==0) {
+				counts[j/BLOCK_BYTES] = count;
+			}
+			count += Integer.bitCount(bits[j] & 0xFF);
+		}
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return TRUE si V (0 <= V <= LIMIT) est premier
+	 */
+	public boolean isPrime(long v) {
+		if (v<7) {
+			return v==2 || v==3 || v==5;
+		}
+
+		int bit = SegmentedSieve.BIT[(int) (v%30)];
+		return bit!=0 && (bits[(int) (v/30)] & bit)!=0;
+	}
+
+	/**
+	 * @return le nombre de nombres premiers infrieurs ou gaux  V (0 <= V <= LIMIT)
+	 */
+	public long pi(long v) {
+		if (v<7) {
+			return (v<2) ? 0 : (v<3) ? 1 : (v<5) ? 2 : 3;
+		}
+
+		int j = (int) (v/30);
+		int block = j/BLOCK_BYTES;
+		long count = 3 + counts[block];
+
+		for (int k=block*BLOCK_BYTES ; k<j ; k++) {
+			count += Integer.bitCount(bits[k] & 0xFF);
+		}
+
+		return count + Integer.bitCount(bits[j] & MASK_UPTO[(int) (v%30)]);
+	}
+}
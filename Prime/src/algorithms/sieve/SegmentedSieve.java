@@ -0,0 +1,378 @@
+package algorithms.sieve;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Crible d'Eratosthne segment sur une roue modulo 30.
+ *
+ * Chaque octet reprsente 30 entiers conscutifs : un bit par rsidu premier avec 30
+ * (1, 7, 11, 13, 17, 19, 23, 29), soit 8 bits pour 30 nombres. Les multiples de 2, 3 et 5
+ * ne sont donc jamais stocks, et ceux de 7, 11 et 13 sont retirs par recopie d'un motif.
+ *
+ * L'intervalle est parcouru par segments de taille fixe (par dfaut 256 Ko, la taille d'un cache L2) :
+ * la mmoire utilise est proportionnelle  racine de N (les premiers de base et leurs dcalages),
+ * jamais  N.
+ *
+ * Chaque segment et chaque table de premiers de base sont mesurs par SieveMetrics quand elle est active
+ * ou qu'un enregistrement JFR le demande.
+ */
+public class SegmentedSieve {
+
+	/** les rsidus modulo 30 premiers avec 30, dans l'ordre des bits d'un octet */
+	public static final int[] RESIDUES = {1, 7, 11, 13, 17, 19, 23, 29};
+	/** pour chaque rsidu modulo 30, le masque de son bit (0 si le rsidu n'est pas premier avec 30) */
+	public static final int[] BIT = new int[30];
+	/** taille par dfaut d'un segment, en octets */
+	public static final int SEGMENT_BYTES = 1 << 18;
+	/** motif des octets dj cribls par 7, 11 et 13 (priode 7*11*13 = 1001 octets) */
+	private static final byte[] PATTERN = new byte[1001];
+	/** premier des premiers de base qui n'est pas trait par le motif */
+	private static final int FIRST_SIEVING_PRIME = 17;
+
+	static {
+		for (int i=0 ; i<RESIDUES.length ; i++) {
+			BIT[RESIDUES[i]] = 1 << i;
+		}
+
+		for (int b=0 ; b<PATTERN.length ; b++) {
+			int bits = 0;
+			for (int i=0 ; i<RESIDUES.length ; i++) {
+				int v = 30*b + RESIDUES[i];
+				if (v%7>0 && v%11>0 && v%13>0) {
+					bits |= 1 << i;
+				}
+			}
+			PATTERN[b] = (byte) bits;
+		}
+	}
+
+	/** la borne suprieure (incluse) des nombres que ce crible peut traiter */
+	private final long limit;
+	/** les premiers de base, de 17  racine de LIMIT */
+	private final int[] primes;
+	/** la taille d'un segment en octets */
+	private final int segmentBytes;
+
+	public SegmentedSieve(long limit) {
+		this(limit, SEGMENT_BYTES);
+	}
+
+	public SegmentedSieve(long limit, int segmentBytes) {
+		this(limit, smallPrimes((int) isqrt(limit)), segmentBytes);
+	}
+
+	/**
+	 * @param basePrimes tous les premiers jusqu' racine de LIMIT (au moins), partags en lecture seule
+	 */
+	public SegmentedSieve(long limit, int[] basePrimes, int segmentBytes) {
+		if (limit<0) {
+			throw new IllegalArgumentException("limit < 0 : " + limit);
+		}
+		if (segmentBytes<=0) {
+			throw new IllegalArgumentException("segmentBytes <= 0 : " + segmentBytes);
+		}
+
+		int sqrt = (int) isqrt(limit);
+		int first = 0;
+		while (first<basePrimes.length && basePrimes[first]<FIRST_SIEVING_PRIME) {
+			first++;
+		}
+		int last = first;
+		while (last<basePrimes.length && basePrimes[last]<=sqrt) {
+			last++;
+		}
+
+		this.limit = limit;
+		this.primes = Arrays.copyOfRange(basePrimes, first, last);
+		this.segmentBytes = segmentBytes;
+
+		SieveMetrics.basePrimes(limit, primes.length);
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	public int getSegmentBytes() {
+		return segmentBytes;
+	}
+
+	/**
+	 * @return un curseur sur les segments couvrant [FROM, TO]
+	 */
+	public Segment segments(long from, long to) {
+		return new Segment(from, to);
+	}
+
+	/**
+	 * Applique ACTION  chaque nombre premier de [FROM, TO], par ordre croissant
+	 */
+	public void forEach(long from, long to, LongConsumer action) {
+		for (int p : new int[]{2, 3, 5}) {
+			if (p>=from && p<=to) {
+				action.accept(p);
+			}
+		}
+
+		Segment segment = segments(from, to);
+		while (segment.next()) {
+			segment.forEach(action);
+		}
+	}
+
+	/**
+	 * @return le nombre de nombres premiers dans [FROM, TO]
+	 */
+	public long count(long from, long to) {
+		long count = 0;
+		for (int p : new int[]{2, 3, 5}) {
+			if (p>=from && p<=to) {
+				count++;
+			}
+		}
+
+		Segment segment = segments(from, to);
+		while (segment.next()) {
+			count += segment.count();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Un segment du crible, dplac de proche en proche sur l'intervalle [FROM, TO].
+	 * Seuls les nombres premiers avec 30 y sont reprsents : 2, 3 et 5 sont  la charge de l'appelant.
+	 */
+	public class Segment {
+
+		private final long from;
+		private final long to;
+		/** les bits du segment courant : 1 = premier */
+		private final byte[] bits;
+		/** pour chaque premier de base actif, les 8 prochains octets  rayer (relatifs au segment courant) */
+		private final int[] next;
+		/** le nombre de premiers de base actifs (ceux dont le carr a t atteint) */
+		private int active;
+		/** le dbut (multiple de 30) du segment courant */
+		private long low;
+		/** le nombre d'octets utiliss dans le segment courant */
+		private int size;
+
+		protected Segment(long from, long to) {
+			if (to>limit) {
+				throw new IllegalArgumentException("to > limit : " + to + " > " + limit);
+			}
+
+			this.from = Math.max(from, 0);
+			this.to = to;
+			this.bits = new byte[segmentBytes];
+			this.next = new int[8*primes.length];
+			this.active = 0;
+			this.low = this.from - this.from%30;
+			this.size = 0;
+		}
+
+		/**
+		 * Crible le segment suivant
+		 * @return FALSE si l'intervalle est entirement parcouru
+		 */
+		public boolean next() {
+			if (size>0) {
+				low += 30L*size;
+			}
+			if (low>to) {
+				size = 0;
+				return false;
+			}
+
+			size = (int) Math.min(segmentBytes, (to-low)/30 + 1);
+			long high = low + 30L*size;
+			long start = SieveMetrics.start();
+
+			fill();
+
+			// activation des premiers dont le carr tombe dans ce segment
+			while (active<primes.length && (long) primes[active]*primes[active]<high) {
+				start(active);
+				active++;
+			}
+
+			for (int i=0 ; i<active ; i++) {
+				int p = primes[i];
+				int r = p%30;
+				for (int k=0 ; k<8 ; k++) {
+					int mask = ~BIT[r*RESIDUES[k]%30];
+					int j = next[8*i+k];
+					for ( ; j<size ; j+=p) {
+						bits[j] &= mask;
+					}
+					next[8*i+k] = j-size;
+				}
+			}
+
+			clip();
+
+			if (start!=0) {
+				// le temps est pris avant le comptage des nombres premiers
+				SieveMetrics.segment(low, size, System.nanoTime()-start, count());
+			}
+
+			return true;
+		}
+
+		/**
+		 * Initialise le segment avec le motif 7, 11, 13
+		 */
+		private void fill() {
+			int pos = (int) ((low/30)%PATTERN.length);
+			int filled = 0;
+
+			while (filled<size) {
+				int n = Math.min(PATTERN.length-pos, size-filled);
+				System.arraycopy(PATTERN, pos, bits, filled, n);
+				filled += n;
+				pos = 0;
+			}
+
+			if (low==0) {
+				// 1 n'est pas premier, mais 7, 11 et 13 le sont
+				bits[0] = (byte) ((bits[0] & ~BIT[1]) | BIT[7] | BIT[11] | BIT[13]);
+			}
+		}
+
+		/**
+		 * Calcule les 8 premiers multiples de PRIMES[I]  rayer  partir du segment courant
+		 */
+		private void start(int i) {
+			long p = primes[i];
+			long q0 = Math.max(p, (low+p-1)/p);
+
+			for (int k=0 ; k<8 ; k++) {
+				long q = q0 + ((RESIDUES[k] - q0%30) + 30)%30;
+				next[8*i+k] = (int) ((p*q - low)/30);
+			}
+		}
+
+		/**
+		 * Efface les bits en dehors de [FROM, TO]
+		 */
+		private void clip() {
+			if (low<from) {
+				int mask = 0;
+				for (int i=0 ; i<RESIDUES.length ; i++) {
+					if (low+RESIDUES[i]<from) {
+						mask |= 1 << i;
+					}
+				}
+				bits[0] &= ~mask;
+			}
+
+			long last = low + 30L*(size-1);
+			if (last+29>to) {
+				int mask = 0;
+				for (int i=0 ; i<RESIDUES.length ; i++) {
+					if (last+RESIDUES[i]>to) {
+						mask |= 1 << i;
+					}
+				}
+				bits[size-1] &= ~mask;
+			}
+		}
+
+		/**
+		 * @return le dbut (multiple de 30) du segment courant
+		 */
+		public long low() {
+			return low;
+		}
+
+		/**
+		 * @return le nombre d'octets utiliss dans le segment courant
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return les bits du segment courant (l'octet J reprsente [LOW + 30*J, LOW + 30*J + 30[)
+		 */
+		public byte[] bits() {
+			return bits;
+		}
+
+		/**
+		 * Applique ACTION  chaque nombre premier du segment courant, par ordre croissant
+		 */
+		public void forEach(LongConsumer action) {
+			long base = low;
+			for (int j=0 ; j<size ; j++, base+=30) {
+				int b = bits[j] & 0xFF;
+				while (b!=0) {
+					action.accept(base + RESIDUES[Integer.numberOfTrailingZeros(b)]);
+					b &= b-1;
+				}
+			}
+		}
+
+		/**
+		 * @return le nombre de nombres premiers du segment courant
+		 */
+		public int count() {
+			int count = 0;
+			for (int j=0 ; j<size ; j++) {
+				count += Integer.bitCount(bits[j] & 0xFF);
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * @return tous les nombres premiers jusqu' N (crible d'Eratosthne simple sur les impairs)
+	 */
+	public static int[] smallPrimes(int n) {
+		if (n<2) {
+			return new int[0];
+		}
+
+		// composite[i] reprsente le nombre impair 2*i+1
+		boolean[] composite = new boolean[n/2 + 1];
+		int count = 1;
+
+		for (int i=1 ; 2*i+1<=n ; i++) {
+			if ( ! composite[i]) {
+				count++;
+				long p = 2*i+1;
+				for (long m=p*p ; m<=n ; m+=2*p) {
+					composite[(int) (m/2)] = true;
+				}
+			}
+		}
+
+		int[] primes = new int[count];
+		primes[0] = 2;
+		for (int i=1, c=1 ; 2*i+1<=n ; i++) {
+			if ( ! composite[i]) {
+				primes[c++] = 2*i+1;
+			}
+		}
+
+		return primes;
+	}
+
+	/**
+	 * @return la partie entire de la racine carre de N
+	 */
+	public static long isqrt(long n) {
+		long r = (long) Math.sqrt((double) n);
+
+		while (r*r>n) {
+			r--;
+		}
+		while ((r+1)*(r+1)<=n) {
+			r++;
+		}
+
+		return r;
+	}
+}
@@ -0,0 +1,184 @@
+package algorithms.sieve;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registre des mtriques des cribles (SegmentedSieve, ParallelSieve), partag par toute la JVM :
+ * segments cribls, octets, temps de crible, nombres premiers produits, taille de la table des premiers de base
+ * et temps d'inactivit des workers.
+ *
+ * Dsactiv par dfaut (ou activ au dmarrage par -Dprimes.metrics=true) : un segment ne cote alors que la lecture
+ * de deux boolens. Les mmes mesures partent aussi en vnements JFR (SieveEvents, dans le dossier de sources jfr)
+ * quand un enregistrement les demande, que le registre soit actif ou non. Le projet Eclipse et le module bench
+ * compilent le dossier jfr avec src, ce qui demande un JDK 8u262 ou plus rcent ; src seul compile sur tout Java 8
+ * et n'a alors que le registre.
+ *
+ * L'inactivit des workers n'a de sens que sur un pool ddi  ParallelSieve (ParallelSieveAlgorithm(N, threads)) :
+ * sur le pool commun, le temps que ses threads passent sur les tches des autres compte comme de l'inactivit.
+ */
+public final class SieveMetrics {
+
+	/** les vnements JFR, null si SieveEvents n'a pas t compile ou si la JVM n'a pas JFR */
+	private static final SieveRecorder JFR = jfrRecorder();
+
+	private static volatile boolean enabled = Boolean.getBoolean("primes.metrics");
+	/** le dbut de la mesure, pour le dbit */
+	private static volatile long startNanos = System.nanoTime();
+
+	private static final LongAdder segments = new LongAdder();
+	private static final LongAdder sievedBytes = new LongAdder();
+	private static final LongAdder sieveNanos = new LongAdder();
+	private static final LongAdder primes = new LongAdder();
+	private static final LongAdder idleNanos = new LongAdder();
+	private static volatile int basePrimes;
+
+	private SieveMetrics() {
+
+	}
+
+	private static SieveRecorder jfrRecorder() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (SieveRecorder) Class.forName("algorithms.sieve.SieveEvents").getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+
+	public static void enable() {
+		enabled = true;
+	}
+
+	public static void disable() {
+		enabled = false;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Remet les compteurs  zro et redmarre la mesure du dbit
+	 */
+	public static void reset() {
+		segments.reset();
+		sievedBytes.reset();
+		sieveNanos.reset();
+		primes.reset();
+		idleNanos.reset();
+		basePrimes = 0;
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * @return TRUE si une mesure est demande, par le registre ou par un enregistrement JFR
+	 */
+	static boolean isRecording() {
+		return enabled || (JFR!=null && JFR.isRecording());
+	}
+
+	/**
+	 * @return le dbut d'une mesure, 0 si personne ne la demande
+	 */
+	public static long start() {
+		return isRecording() ? System.nanoTime() | 1 : 0;
+	}
+
+	/**
+	 * Un segment de BYTES octets commenant  LOW, cribl en NANOS ns, contient PRIMES nombres premiers
+	 * (pour SetShrinkingAlgorithm, un segment est un passage de filtre sur l'ensemble)
+	 */
+	public static void segment(long low, int bytes, long nanos, int primes) {
+		if (enabled) {
+			segments.increment();
+			sievedBytes.add(bytes);
+			sieveNanos.add(nanos);
+			SieveMetrics.primes.add(primes);
+		}
+		if (JFR!=null) {
+			JFR.segment(low, bytes, primes, nanos);
+		}
+	}
+
+	/**
+	 * Une table de COUNT premiers de base, pour un crible jusqu' LIMIT
+	 */
+	static void basePrimes(long limit, int count) {
+		if (enabled) {
+			basePrimes = Math.max(basePrimes, count);
+		}
+		if (JFR!=null) {
+			JFR.basePrimes(limit, count);
+		}
+	}
+
+	/**
+	 * Un ParallelSieve.process sur [FROM, TO] en CHUNKS tranches, commenc  START : pendant ce temps les
+	 * PARALLELISM workers ont travaill BUSY ns au total, le reste est de l'inactivit (y compris le travail d'autres
+	 * utilisateurs du pool, s'il est partag)
+	 */
+	static void process(long from, long to, int chunks, int parallelism, long busy, long start) {
+		long elapsed = System.nanoTime() - start;
+		long idle = Math.max(0, elapsed*parallelism - busy);
+
+		if (enabled) {
+			idleNanos.add(idle);
+		}
+		if (JFR!=null) {
+			JFR.process(from, to, chunks, parallelism, elapsed, busy, idle);
+		}
+	}
+
+	/** @return le nombre de segments cribls */
+	public static long getSegments() {
+		return segments.sum();
+	}
+
+	/** @return le nombre d'octets cribls (un octet pour 30 nombres) */
+	public static long getSievedBytes() {
+		return sievedBytes.sum();
+	}
+
+	/** @return le temps pass  cribler les segments, en ns, tous threads confondus */
+	public static long getSieveNanos() {
+		return sieveNanos.sum();
+	}
+
+	/** @return le nombre de nombres premiers produits par les segments */
+	public static long getPrimes() {
+		return primes.sum();
+	}
+
+	/** @return la plus grande table de premiers de base construite */
+	public static int getBasePrimes() {
+		return basePrimes;
+	}
+
+	/** @return le temps d'inactivit des workers des ParallelSieve, en ns (exact seulement sur un pool ddi) */
+	public static long getIdleNanos() {
+		return idleNanos.sum();
+	}
+
+	/** @return les nombres premiers produits par seconde depuis le dernier reset */
+	public static double getPrimesPerSecond() {
+		long elapsed = System.nanoTime() - startNanos;
+
+		return (elapsed>0) ? getPrimes() * 1e9 / elapsed : 0;
+	}
+
+	/**
+	 * @return un rsum des mtriques, sur une ligne
+	 */
+	public static String report() {
+		long segments = getSegments();
+		long nanos = getSieveNanos();
+
+		return "segments: " + segments
+			+ ", octets: " + getSievedBytes()
+			+ ", crible: " + nanos/1000000 + " ms" + ((segments>0) ? " (" + nanos/segments/1000 + " s/segment)" : "")
+			+ ", premiers: " + getPrimes() + " (" + Math.round(getPrimesPerSecond()) + "/s)"
+			+ ", premiers de base: " + getBasePrimes()
+			+ ", inactivit: " + getIdleNanos()/1000000 + " ms";
+	}
+}
@@ -0,0 +1,19 @@
+package algorithms.sieve;
+
+/**
+ * Ce que SieveMetrics envoie aux vnements JFR. L'implmentation, SieveEvents, est dans le dossier de sources jfr
+ * (elle dpend de jdk.jfr, absent de Java 8 avant 8u262) : SieveMetrics ne la connat que par cette interface.
+ */
+interface SieveRecorder {
+
+	/**
+	 * @return TRUE si un enregistrement JFR en cours demande ces vnements
+	 */
+	boolean isRecording();
+
+	void segment(long low, int bytes, int primes, long nanos);
+
+	void basePrimes(long limit, int count);
+
+	void process(long from, long to, int chunks, int parallelism, long elapsed, long busy, long idle);
+}